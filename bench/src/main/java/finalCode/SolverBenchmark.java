@@ -0,0 +1,112 @@
+package finalCode;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmark of a single findPath call for each solver, over maze size and
+ * imperfection k. Replaces the single System.nanoTime pair in DataCollector
+ * with warmed-up, forked measurements.
+ *
+ * The maze for each (size, k) is generated once per trial from a fixed seed,
+ * so every solver and every fork sees exactly the same maze. Before a trial
+ * the solver's path is checked against AStar's, so a search that fails is
+ * never timed. The 8-direction JPS is left out: it finds no path on these
+ * mazes. Run with
+ *
+ * java -jar bench/target/benchmarks.jar
+ *
+ * which reports average time, throughput and (through the GC profiler)
+ * gc.alloc.rate.norm, the bytes allocated per findPath call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SolverBenchmark {
+
+    static final long SEED = 42L;
+
+    @Param({ "101", "501", "2001" })
+    int size;
+
+    // 0 is the perfect maze, the rest mirror DataCollector.kFACTORS
+    @Param({ "0", "0.01", "0.05", "0.1", "0.2", "0.3" })
+    float k;
+
+    @Param({ "AStar", "AStarIndexed", "JPS2", "JPS2Table", "BidirectionalAStar", "BidirectionalJPS2" })
+    String solver;
+
+    private MazeGrid maze;
+    private AStar aStar;
+    private JPS2 jps2;
+    private BidirectionalAStar bidirectionalAStar;
+    private BidirectionalJPS2 bidirectionalJps2;
+    private JumpTable jumpTable; // built once per trial, not timed
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = new WilsonsFast(size, size).generatePerfectMaze(SEED);
+        if (k > 0) {
+            maze = new Imperfector(maze, Imperfector.wallSeed(SEED)).imperfect(k);
+        }
+        aStar = new AStar();
+        jps2 = new JPS2();
+        bidirectionalAStar = new BidirectionalAStar();
+        bidirectionalJps2 = new BidirectionalJPS2();
+        jumpTable = JumpTable.build(maze);
+
+        int expected = aStar.findPath(maze).path.size();
+        int length = findPath().path.size();
+        if (expected == 0 || length != expected)
+            throw new IllegalStateException(solver + " found a path of " + length + " cells on the " + size + "x"
+                    + size + " k=" + k + " maze, AStar one of " + expected);
+    }
+
+    @Benchmark
+    public Result findPath() {
+        switch (solver) {
+            case "AStar":
+                return aStar.findPath(maze);
+            case "AStarIndexed":
+                return aStar.findPathIndexed(maze);
+            case "JPS2":
+                return jps2.findPath(maze);
+            case "JPS2Table":
+                return jps2.findPath(maze, jumpTable);
+            case "BidirectionalAStar":
+                return bidirectionalAStar.findPath(maze);
+            case "BidirectionalJPS2":
+                return bidirectionalJps2.findPath(maze);
+            default:
+                throw new IllegalStateException("unknown solver " + solver);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SolverBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
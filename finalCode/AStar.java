@@ -2,12 +2,35 @@ package finalCode;
 
 import java.util.*;
 
-public class AStar {
+public class AStar implements Pathfinder {
 
     static final int SAMPLES = 10;
     static final int HEIGHT = 501;
     static final int WIDTH = 501;
 
+    private final OpenList openList;
+    private final SearchStats stats = new SearchStats();
+    private SearchListener listener;
+
+    public AStar() {
+        this(new BinaryHeapOpenList(Comparator.comparingInt(node -> node.f)));
+    }
+
+    /**
+     * @param openList the open list strategy used by findPath
+     */
+    public AStar(OpenList openList) {
+        this.openList = openList;
+    }
+
+    /**
+     * @param listener told of every push and expansion of both findPath and
+     *                 findPathIndexed (e.g. a SearchTrace), or null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Represents a node in the maze for the A* algorithm.
      * Each node has a position (row, col), cost from the start (g),
@@ -15,81 +38,227 @@ public class AStar {
      * and a reference to its parent node for path reconstruction.
      */
 
+    /**
+     * Convenience overload for boolean[][] mazes (true = path). The maze is
+     * packed into a MazeGrid first.
+     */
+    public Result findPath(boolean[][] maze) {
+        return findPath(MazeGrid.of(maze));
+    }
+
     /**
      * Finds the shortest path in a maze from 'S' to 'E' using the A* algorithm.
+     * Closed cells and best g-scores are kept in the thread's SearchWorkspace;
+     * a neighbor is only pushed when it improves on its best g so far.
      *
-     * @param maze A 2D char array representing the maze. 'S' is start, 'E' is end,
-     *             '0' is a wall, and '.' is a path.
+     * @param maze The maze grid.
      * @return An Result object containing the path, execution time, and number
      *         of explored nodes.
      */
-    public Result findPath(boolean[][] maze) {
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
         long startTime = System.nanoTime();
 
         Node startNode = null;
         Node endNode = null;
 
-        startNode = new Node(1, 1);
-        endNode = new Node(maze.length - 2, maze[0].length - 2);
+        if (maze.isOpen(startRow, startCol) && maze.isOpen(endRow, endCol)) {
+            startNode = new Node(startRow, startCol);
+            endNode = new Node(endRow, endCol);
+        }
 
         if (startNode == null || endNode == null) {
-            return new Result(null, System.nanoTime() - startTime, 0);
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
         }
 
-        PriorityQueue<Node> openList = new PriorityQueue<>(Comparator.comparingInt(node -> node.f));
-        Set<Node> closedList = new HashSet<>();
+        int cols = maze.cols();
+        SearchWorkspace ws = SearchWorkspace.get().begin(maze.rows() * cols);
+        openList.clear(maze.rows(), cols);
+        stats.reset();
+        int explored = 0;
 
         startNode.g = 0;
         startNode.h = calculateHeuristic(startNode, endNode);
         startNode.f = startNode.g + startNode.h;
-        openList.add(startNode);
+        ws.set(startRow * cols + startCol, 0, -1);
+        openList.push(startNode);
+        stats.pushed(openList.size());
+        if (listener != null)
+            listener.pushed(startRow * cols + startCol);
 
         while (!openList.isEmpty()) {
             Node currentNode = openList.poll();
+            stats.pops++;
+            int current = currentNode.row * cols + currentNode.col;
 
-            if (closedList.contains(currentNode)) {
+            if (ws.isClosed(current)) {
+                stats.staleSkips++;
                 continue;
             }
 
             if (currentNode.equals(endNode)) {
-                List<Node> path = reconstructPath(currentNode);
+                CellPath path = reconstructPath(currentNode, cols);
                 long endTime = System.nanoTime();
-                return new Result(path, endTime - startTime, closedList.size());
+                return stats.copyTo(new Result(path, endTime - startTime, explored));
             }
 
-            closedList.add(currentNode);
+            ws.close(current);
+            explored++;
+            if (listener != null)
+                listener.expanded(current);
 
             // Explore neighbors (Up, Down, Left, Right)
-            int[] dr = { -1, 1, 0, 0 };
-            int[] dc = { 0, 0, -1, 1 };
-
             for (int i = 0; i < 4; i++) {
-                int newRow = currentNode.row + dr[i];
-                int newCol = currentNode.col + dc[i];
+                int newRow = currentNode.row + DR[i];
+                int newCol = currentNode.col + DC[i];
 
-                if (newRow < 0 || newRow >= maze.length || newCol < 0 || newCol >= maze[0].length || // bound check
-                        !maze[newRow][newCol]) { // wall check
+                if (!maze.isOpen(newRow, newCol)) { // bound and wall check
                     continue;
                 }
 
-                Node neighbor = new Node(newRow, newCol);
-                if (closedList.contains(neighbor)) {
+                int next = newRow * cols + newCol;
+                int g = currentNode.g + 1; // Cost of 1 for each step
+                if (ws.isClosed(next) || g >= ws.g(next)) {
                     continue;
                 }
 
                 // A better path to the neighbor has been found
+                ws.set(next, g, current);
+                Node neighbor = new Node(newRow, newCol);
                 neighbor.parent = currentNode;
-                neighbor.g = currentNode.g + 1; // Cost of 1 for each step
+                neighbor.g = g;
                 neighbor.h = calculateHeuristic(neighbor, endNode);
                 neighbor.f = neighbor.g + neighbor.h;
 
-                openList.add(neighbor);
+                openList.push(neighbor);
+                stats.pushed(openList.size());
+                if (listener != null)
+                    listener.pushed(next);
+            }
+        }
+
+        long endTime = System.nanoTime();
+        // No path found
+        return stats.copyTo(new Result(CellPath.EMPTY, endTime - startTime, explored));
+    }
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    // Reusable heap for findPathIndexed
+    private final IntHeap open = new IntHeap();
+
+    /**
+     * Same search as findPath, but on flat int cell indices (row * cols + col)
+     * instead of Node objects: an int-array binary heap keyed by f, and the
+     * thread's SearchWorkspace for g-scores, parents and the closed set. Nothing is
+     * allocated per expanded node, and no Node at all: the path is built as a
+     * CellPath straight from the parent cells, like findPath's.
+     *
+     * @param maze The maze grid. Start is (1,1), end is (rows-2, cols-2).
+     * @return A Result object containing the path, execution time, and number
+     *         of explored nodes.
+     */
+    public Result findPathIndexed(MazeGrid maze) {
+        return findPathIndexed(maze, 1, 1, maze.rows() - 2, maze.cols() - 2);
+    }
+
+    /**
+     * findPathIndexed between explicit start and end cells. The heap and the
+     * workspace are kept between calls, so a run of queries on one maze
+     * allocates nothing but the returned paths, and setup does not depend on
+     * the maze size.
+     */
+    public Result findPathIndexed(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int rows = maze.rows();
+        int cols = maze.cols();
+        int cells = rows * cols;
+        int start = startRow * cols + startCol;
+        int end = endRow * cols + endCol;
+
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol)) {
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
+        }
+
+        SearchWorkspace ws = SearchWorkspace.get().begin(cells);
+        open.clear();
+        stats.reset();
+
+        ws.set(start, 0, -1);
+        open.push(manhattan(startRow, startCol, endRow, endCol), start);
+        stats.pushed(open.size());
+        if (listener != null)
+            listener.pushed(start);
+        int explored = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            stats.pops++;
+
+            if (ws.isClosed(current)) {
+                stats.staleSkips++;
+                continue;
+            }
+
+            if (current == end) {
+                CellPath path = reconstructPath(ws, current, cols);
+                long endTime = System.nanoTime();
+                Result result = new Result(path, endTime - startTime, explored);
+                result.memoryBytes = ws.bytes() + 8L * open.capacity();
+                return stats.copyTo(result);
+            }
+
+            ws.close(current);
+            explored++;
+            if (listener != null)
+                listener.expanded(current);
+
+            int row = current / cols;
+            int col = current - row * cols;
+            int g = ws.g(current) + 1; // Cost of 1 for each step
+
+            for (int i = 0; i < 4; i++) {
+                int newRow = row + DR[i];
+                int newCol = col + DC[i];
+
+                if (!maze.isOpen(newRow, newCol)) { // bound and wall check
+                    continue;
+                }
+
+                int neighbor = newRow * cols + newCol;
+                if (ws.isClosed(neighbor) || g >= ws.g(neighbor)) {
+                    continue;
+                }
+
+                ws.set(neighbor, g, current);
+                open.push(g + manhattan(newRow, newCol, endRow, endCol), neighbor);
+                stats.pushed(open.size());
+                if (listener != null)
+                    listener.pushed(neighbor);
             }
         }
 
         long endTime = System.nanoTime();
         // No path found
-        return new Result(null, endTime - startTime, closedList.size());
+        Result result = new Result(CellPath.EMPTY, endTime - startTime, explored);
+        result.memoryBytes = ws.bytes() + 8L * open.capacity();
+        return stats.copyTo(result);
+    }
+
+    private static int manhattan(int r1, int c1, int r2, int c2) {
+        return Math.abs(r1 - r2) + Math.abs(c1 - c2);
+    }
+
+    /**
+     * Rebuilds the path for findPathIndexed from the workspace parents.
+     */
+    private static CellPath reconstructPath(SearchWorkspace ws, int end, int cols) {
+        CellPath.Builder path = new CellPath.Builder(cols);
+        for (int cell = end; cell != -1; cell = ws.parent(cell))
+            path.add(cell);
+        return path.buildReversed();
     }
 
     /**
@@ -107,16 +276,15 @@ public class AStar {
      * Reconstructs the path from the end node back to the start node.
      * 
      * @param endNode The end node of the path.
-     * @return A list of nodes representing the path from start to end.
+     * @return The path from start to end.
      */
-    private List<Node> reconstructPath(Node endNode) {
-        List<Node> path = new ArrayList<>();
+    private CellPath reconstructPath(Node endNode, int cols) {
+        CellPath.Builder path = new CellPath.Builder(cols);
         Node current = endNode;
         while (current != null) {
-            path.add(current);
+            path.add(current.row * cols + current.col);
             current = current.parent;
         }
-        Collections.reverse(path);
-        return path;
+        return path.buildReversed();
     }
 }
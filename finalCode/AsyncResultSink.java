@@ -0,0 +1,141 @@
+package finalCode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe ResultSink that hands rows to one or more other sinks on a
+ * background writer thread, so formatting and file I/O never run on a
+ * thread that is timing a search. write() only appends the row to the
+ * current batch; every batchSize rows the batch is passed to the writer
+ * thread, which writes it to each sink in turn (through their own buffers;
+ * flush() also flushes the sinks).
+ *
+ * The first IOException on the writer thread is reported by the next
+ * write, flush or close. close() writes what is left, waits for the writer
+ * and closes the sinks.
+ */
+public class AsyncResultSink implements ResultSink {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final ResultSink[] sinks;
+    private final int batchSize;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "result-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<ResultRow> batch;
+    private volatile IOException failure;
+    private boolean closed;
+
+    public AsyncResultSink(ResultSink... sinks) {
+        this(DEFAULT_BATCH_SIZE, sinks);
+    }
+
+    /**
+     * @param batchSize rows handed to the writer thread at a time
+     * @param sinks     the sinks every row goes to, only used from the writer
+     *                  thread once given here
+     */
+    public AsyncResultSink(int batchSize, ResultSink... sinks) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("batchSize must be at least 1, got " + batchSize);
+        this.sinks = sinks.clone();
+        this.batchSize = batchSize;
+        batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public synchronized void write(ResultRow row) throws IOException {
+        if (closed)
+            throw new IllegalStateException("result sink is closed");
+        checkFailure();
+        batch.add(row);
+        if (batch.size() == batchSize)
+            submit(false);
+    }
+
+    /**
+     * Hands over the current batch and waits until the writer has written and
+     * flushed it.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        if (closed)
+            return;
+        await(submit(true));
+        checkFailure();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+        submit(false);
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing results", e);
+        }
+        // The writer thread is done: the sinks are ours to close
+        IOException error = failure;
+        for (ResultSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException e) {
+                if (error == null)
+                    error = e;
+            }
+        }
+        if (error != null)
+            throw error;
+    }
+
+    private Future<?> submit(boolean flush) {
+        List<ResultRow> rows = batch;
+        batch = new ArrayList<>(batchSize);
+        return writer.submit(() -> {
+            if (failure != null)
+                return;
+            try {
+                for (ResultSink sink : sinks) {
+                    for (ResultRow row : rows)
+                        sink.write(row);
+                    if (flush)
+                        sink.flush();
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while writing results", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("result writer failed", e.getCause());
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        IOException e = failure;
+        if (e != null)
+            throw new IOException("writing results failed", e);
+    }
+}
@@ -0,0 +1,109 @@
+package finalCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Runs many (start, goal) queries against one maze.
+ *
+ * The per-maze preprocessing (jump table, junction graph, cluster graph) is
+ * built once, by Pathfinder.preprocess on the calling thread, before any
+ * worker starts. The queries are then split into one contiguous chunk per
+ * worker. Each worker gets its own solver instance from the factory (its
+ * search buffers are not shareable), hands it the shared preprocessing with
+ * prepare(maze, preprocessed) and answers its chunk in order. All workers
+ * read the same maze and preprocessing, which must not be modified while the
+ * batch runs.
+ *
+ * Results come back in query order regardless of the number of workers.
+ */
+public class BatchSolver {
+
+    /**
+     * One (start, goal) pair.
+     */
+    public static class Query {
+        public final int startRow, startCol, endRow, endCol;
+
+        public Query(int startRow, int startCol, int endRow, int endCol) {
+            this.startRow = startRow;
+            this.startCol = startCol;
+            this.endRow = endRow;
+            this.endCol = endCol;
+        }
+    }
+
+    private final Supplier<Pathfinder> solverFactory;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param solverFactory called once per worker, on the calling thread
+     */
+    public BatchSolver(Supplier<Pathfinder> solverFactory) {
+        this.solverFactory = solverFactory;
+    }
+
+    /**
+     * Sets the number of worker threads; 1 answers every query on the
+     * calling thread.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1, got " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return results[i] is the answer to queries.get(i)
+     */
+    public Result[] solve(MazeGrid maze, List<Query> queries) throws InterruptedException {
+        Result[] results = new Result[queries.size()];
+        if (queries.isEmpty())
+            return results;
+        Pathfinder first = solverFactory.get();
+        Object preprocessed = first.preprocess(maze);
+        int workers = Math.min(parallelism, queries.size());
+        if (workers <= 1) {
+            solveRange(first, maze, preprocessed, queries, results, 0, queries.size());
+            return results;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            int from = (int) ((long) queries.size() * w / workers);
+            int to = (int) ((long) queries.size() * (w + 1) / workers);
+            Pathfinder solver = w == 0 ? first : solverFactory.get();
+            tasks.add(() -> {
+                solveRange(solver, maze, preprocessed, queries, results, from, to);
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(workers);
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("batch query failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    private static void solveRange(Pathfinder solver, MazeGrid maze, Object preprocessed, List<Query> queries,
+            Result[] results, int from, int to) {
+        solver.prepare(maze, preprocessed);
+        for (int i = from; i < to; i++) {
+            Query q = queries.get(i);
+            results[i] = solver.findPath(maze, q.startRow, q.startCol, q.endRow, q.endCol);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional A*: one search forward from the start towards the goal and
+ * one backward from the goal towards the start, each with the Manhattan
+ * distance to its own target as heuristic (front-to-end).
+ *
+ * Every time a cell is reached that the other search has also reached, the
+ * path through it is a candidate, and mu is the cheapest candidate so far.
+ * The search stops once mu is no larger than the smallest f on either open
+ * list: each open list bounds every path not yet found from below, so no
+ * cheaper path can exist and the path through the meeting cell is optimal.
+ * The side with the smaller open list is expanded next. The open list
+ * counters of the Result cover both directions, and peakOpenSize is the
+ * largest combined size of the two open lists.
+ *
+ * Cells are flat int indices (row * cols + col) as in AStar.findPathIndexed,
+ * with one SearchWorkspace per direction so a query clears nothing
+ * proportional to the maze. Subclasses change how successors are generated
+ * by overriding step.
+ */
+public class BidirectionalAStar implements Pathfinder {
+
+    static final int[] DR = { -1, 1, 0, 0 };
+    static final int[] DC = { 0, 0, -1, 1 };
+
+    private static final int INF = SearchWorkspace.UNSEEN;
+
+    private final SearchWorkspace forward = new SearchWorkspace(), backward = new SearchWorkspace();
+    private final IntHeap openForward = new IntHeap(), openBackward = new IntHeap();
+    private final SearchStats stats = new SearchStats();
+
+    private int mu, meet;
+
+    @Override
+    public BidirectionalResult findPath(MazeGrid maze) {
+        return findPath(maze, 1, 1, maze.rows() - 2, maze.cols() - 2);
+    }
+
+    /**
+     * @param maze The maze grid.
+     * @return A BidirectionalResult with the path, execution time and the
+     *         explored nodes of each direction.
+     */
+    @Override
+    public BidirectionalResult findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int rows = maze.rows();
+        int cols = maze.cols();
+        int cells = rows * cols;
+        int start = startRow * cols + startCol;
+        int end = endRow * cols + endCol;
+
+        stats.reset();
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol))
+            return stats.copyTo(new BidirectionalResult(CellPath.EMPTY, System.nanoTime() - startTime, 0, 0));
+
+        forward.begin(cells);
+        backward.begin(cells);
+        openForward.clear();
+        openBackward.clear();
+
+        forward.set(start, 0, -1);
+        openForward.push(manhattan(start, end, cols), start);
+        stats.pushed(1);
+        backward.set(end, 0, -1);
+        openBackward.push(manhattan(end, start, cols), end);
+        stats.pushed(2);
+        mu = start == end ? 0 : INF;
+        meet = start == end ? start : -1;
+
+        int forwardExplored = 0, backwardExplored = 0;
+        while (!openForward.isEmpty() && !openBackward.isEmpty()) {
+            if (mu <= Math.max(openForward.peekKey(), openBackward.peekKey()))
+                break;
+            if (openForward.size() <= openBackward.size()) {
+                if (expand(maze, openForward, forward, backward, end))
+                    forwardExplored++;
+            } else {
+                if (expand(maze, openBackward, backward, forward, start))
+                    backwardExplored++;
+            }
+        }
+
+        CellPath path = meet < 0 ? CellPath.EMPTY : reconstructPath(meet, cols);
+        long endTime = System.nanoTime();
+        return stats.copyTo(new BidirectionalResult(path, endTime - startTime, forwardExplored, backwardExplored));
+    }
+
+    /**
+     * Pops one cell from open and relaxes its successors.
+     *
+     * @param ws    workspace of the direction being expanded
+     * @param other workspace of the opposite direction
+     * @return false if the popped entry was stale
+     */
+    private boolean expand(MazeGrid maze, IntHeap open, SearchWorkspace ws, SearchWorkspace other, int target) {
+        int cols = maze.cols();
+        int current = open.pop();
+        stats.pops++;
+        if (ws.isClosed(current)) {
+            stats.staleSkips++;
+            return false;
+        }
+        ws.close(current);
+
+        int g = ws.g(current);
+        for (int i = 0; i < 4; i++) {
+            int next = step(maze, current, i, target);
+            if (next < 0)
+                continue;
+            int tentative = g + manhattan(current, next, cols);
+            if (!ws.isClosed(next) && tentative < ws.g(next)) {
+                ws.set(next, tentative, current);
+                int f = tentative + manhattan(next, target, cols);
+                if (f < mu) { // cannot lead to a path cheaper than the best one found
+                    open.push(f, next);
+                    stats.pushed(openForward.size() + openBackward.size());
+                }
+            }
+            int otherG = other.g(next);
+            if (otherG != INF && ws.g(next) + otherG < mu) {
+                mu = ws.g(next) + otherG;
+                meet = next;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the successor of cell in direction dir (index into DR/DC), or -1
+     *         if there is none. A* moves one cell; JPS jumps.
+     */
+    int step(MazeGrid maze, int cell, int dir, int target) {
+        int cols = maze.cols();
+        int r = cell / cols + DR[dir];
+        int c = cell % cols + DC[dir];
+        return maze.isOpen(r, c) ? r * cols + c : -1;
+    }
+
+    static int manhattan(int a, int b, int cols) {
+        return Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+    }
+
+    /**
+     * Joins the forward chain (start to meet) and the backward chain (meet to
+     * goal). Points of straight jumps are waypoints; the CellPath fills in the
+     * cells between them.
+     */
+    private CellPath reconstructPath(int meet, int cols) {
+        int[] points = new int[16];
+        int count = 0;
+        for (int cell = meet; cell != -1; cell = forward.parent(cell)) {
+            if (count == points.length)
+                points = Arrays.copyOf(points, count * 2);
+            points[count++] = cell;
+        }
+
+        CellPath.Builder path = new CellPath.Builder(cols);
+        for (int i = count - 1; i >= 0; i--)
+            path.add(points[i]);
+        for (int cell = backward.parent(meet); cell != -1; cell = backward.parent(cell))
+            path.add(cell);
+        return path.build();
+    }
+}
@@ -0,0 +1,34 @@
+package finalCode;
+
+/**
+ * Bidirectional version of JPS2: the same meet-in-the-middle search as
+ * BidirectionalAStar, but each successor is a jump along a straight corridor
+ * to the next junction, turn or dead end.
+ *
+ * Jump points do not depend on the search direction (only the target each
+ * jump stops at differs), so every junction on the shortest path is a jump
+ * point for both searches and the two frontiers can meet on it.
+ */
+public class BidirectionalJPS2 extends BidirectionalAStar {
+
+    @Override
+    int step(MazeGrid maze, int cell, int dir, int target) {
+        int cols = maze.cols();
+        int dr = DR[dir], dc = DC[dir];
+        int r = cell / cols + dr;
+        int c = cell % cols + dc;
+        while (true) {
+            if (!maze.isOpen(r, c))
+                return -1;
+            if (r * cols + c == target)
+                return target;
+            // keep going only through straight corridor cells
+            boolean straight = maze.isOpen(r + dr, c + dc) && maze.isOpen(r - dr, c - dc)
+                    && !maze.isOpen(r + dc, c + dr) && !maze.isOpen(r - dc, c - dr);
+            if (!straight)
+                return r * cols + c;
+            r += dr;
+            c += dc;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package finalCode;
+
+/**
+ * Result of a bidirectional search. exploredNodes is the total; the two
+ * directions are also reported separately.
+ */
+public class BidirectionalResult extends Result {
+    public int forwardExplored;
+    public int backwardExplored;
+
+    public BidirectionalResult(CellPath path, long executionTime, int forwardExplored, int backwardExplored) {
+        super(path, executionTime, forwardExplored + backwardExplored);
+        this.forwardExplored = forwardExplored;
+        this.backwardExplored = backwardExplored;
+    }
+}
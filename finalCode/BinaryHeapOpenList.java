@@ -0,0 +1,46 @@
+package finalCode;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * The original open list: a java.util.PriorityQueue (binary heap) with
+ * O(log n) push and poll. Re-pushed nodes are kept as duplicates.
+ */
+public class BinaryHeapOpenList implements OpenList {
+
+    private final PriorityQueue<Node> queue;
+
+    public BinaryHeapOpenList() {
+        this(BY_F_THEN_H);
+    }
+
+    public BinaryHeapOpenList(Comparator<Node> comparator) {
+        queue = new PriorityQueue<>(comparator);
+    }
+
+    @Override
+    public void push(Node node) {
+        queue.add(node);
+    }
+
+    @Override
+    public Node poll() {
+        return queue.poll();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+    }
+}
@@ -0,0 +1,80 @@
+package finalCode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * A Dial-style bucket queue. Every step in our mazes costs 1, so f is a small
+ * non-negative integer and nodes can be kept in one bucket per f value. push
+ * and poll are O(1) (amortised over the scan of empty buckets, which only moves
+ * forward while f is non-decreasing, as it is with the Manhattan heuristic).
+ *
+ * Ties within a bucket are broken FIFO (oldest first) or LIFO (newest first).
+ * Re-pushed nodes are kept as duplicates.
+ */
+public class BucketOpenList implements OpenList {
+
+    private final boolean fifo;
+    private ArrayDeque<Node>[] buckets;
+    private int min; // lowest bucket that may be non-empty
+    private int size;
+
+    public BucketOpenList(boolean fifo) {
+        this.fifo = fifo;
+        buckets = newBuckets(64);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ArrayDeque<Node>[] newBuckets(int n) {
+        return (ArrayDeque<Node>[]) new ArrayDeque[n];
+    }
+
+    @Override
+    public void push(Node node) {
+        int f = node.f;
+        if (f < 0)
+            throw new IllegalArgumentException("bucket queue needs f >= 0, got " + f);
+        if (f >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(f + 1, buckets.length * 2));
+        }
+        ArrayDeque<Node> bucket = buckets[f];
+        if (bucket == null) {
+            bucket = new ArrayDeque<>();
+            buckets[f] = bucket;
+        }
+        bucket.addLast(node);
+        if (size == 0 || f < min)
+            min = f;
+        size++;
+    }
+
+    @Override
+    public Node poll() {
+        if (size == 0)
+            return null;
+        while (buckets[min] == null || buckets[min].isEmpty())
+            min++;
+        size--;
+        return fifo ? buckets[min].pollFirst() : buckets[min].pollLast();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (ArrayDeque<Node> bucket : buckets) {
+            if (bucket != null)
+                bucket.clear();
+        }
+        min = 0;
+        size = 0;
+    }
+}
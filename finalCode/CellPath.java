@@ -0,0 +1,211 @@
+package finalCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A solver's path, stored as waypoints: the flat cell indices (row * cols +
+ * col) where the path changes direction, with straight (or, for JPS8,
+ * diagonal) runs of cells between consecutive waypoints left implicit. A
+ * path through a long corridor costs a few ints instead of one Node per
+ * cell, and JPS2 can hand over its jump points as they are.
+ *
+ * size() (the number of cells, start and goal included) is O(1); cells()
+ * walks the cells lazily, and toNodeList() builds the List<Node> the older
+ * code used (g is the step count, parent links set).
+ *
+ * cost() is the path cost as the solver counts it: the number of steps,
+ * except for JPS8, which uses its scaled straight/diagonal costs.
+ */
+public final class CellPath {
+
+    /** A path with no cells, what solvers return when there is no path. */
+    public static final CellPath EMPTY = new CellPath(new int[0], 0, 1, 0);
+
+    private final int[] waypoints;
+    private final int size;
+    private final int cols;
+    private final int cost;
+
+    private CellPath(int[] waypoints, int size, int cols, int cost) {
+        this.waypoints = waypoints;
+        this.size = size;
+        this.cols = cols;
+        this.cost = cost;
+    }
+
+    /**
+     * @return the number of cells on the path, start and goal included
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int waypointCount() {
+        return waypoints.length;
+    }
+
+    /**
+     * @return the i-th waypoint as a flat cell index
+     */
+    public int waypoint(int i) {
+        return waypoints[i];
+    }
+
+    public int first() {
+        return waypoints[0];
+    }
+
+    public int last() {
+        return waypoints[waypoints.length - 1];
+    }
+
+    /**
+     * @return the cells of the path from start to goal, as flat indices,
+     *         produced one at a time from the waypoints
+     */
+    public PrimitiveIterator.OfInt cells() {
+        return new PrimitiveIterator.OfInt() {
+            private int next = 0; // index of the waypoint the run heads to
+            private int r, c, step;
+
+            @Override
+            public boolean hasNext() {
+                return step < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (step >= size)
+                    throw new NoSuchElementException();
+                if (step++ == 0) {
+                    r = waypoints[0] / cols;
+                    c = waypoints[0] % cols;
+                    next = 1;
+                    return waypoints[0];
+                }
+                int target = waypoints[next];
+                r += Integer.signum(target / cols - r);
+                c += Integer.signum(target % cols - c);
+                int cell = r * cols + c;
+                if (cell == target)
+                    next++;
+                return cell;
+            }
+        };
+    }
+
+    /**
+     * @return one Node per cell, with g the step count from the start and
+     *         parent the previous Node
+     */
+    public List<Node> toNodeList() {
+        List<Node> path = new ArrayList<>(size);
+        Node prev = null;
+        for (PrimitiveIterator.OfInt it = cells(); it.hasNext();) {
+            int cell = it.nextInt();
+            Node node = new Node(cell / cols, cell % cols);
+            if (prev != null) {
+                node.parent = prev;
+                node.g = prev.g + 1;
+                node.dx = node.row - prev.row;
+                node.dy = node.col - prev.col;
+            }
+            path.add(node);
+            prev = node;
+        }
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CellPath(").append(size).append(" cells:");
+        for (int cell : waypoints)
+            sb.append(" (").append(cell / cols).append(",").append(cell % cols).append(")");
+        return sb.append(")").toString();
+    }
+
+    /**
+     * Collects the cells of a path, in either direction, and keeps only the
+     * waypoints. Each added cell must lie on a straight or diagonal line from
+     * the previous one (a single step, or a whole jump).
+     */
+    static final class Builder {
+
+        private final int cols;
+        private int[] points = new int[16];
+        private int count;
+        private int size;
+        private int dr, dc; // direction of the last run
+
+        Builder(int cols) {
+            this.cols = cols;
+        }
+
+        Builder add(int cell) {
+            if (count == 0) {
+                points[count++] = cell;
+                size = 1;
+                return this;
+            }
+            int last = points[count - 1];
+            int rowDelta = cell / cols - last / cols, colDelta = cell % cols - last % cols;
+            int steps = Math.max(Math.abs(rowDelta), Math.abs(colDelta));
+            if (steps == 0)
+                return this;
+            int sr = Integer.signum(rowDelta), sc = Integer.signum(colDelta);
+            if (count > 1 && sr == dr && sc == dc) {
+                points[count - 1] = cell; // the run goes on
+            } else {
+                if (count == points.length)
+                    points = Arrays.copyOf(points, count * 2);
+                points[count++] = cell;
+                dr = sr;
+                dc = sc;
+            }
+            size += steps;
+            return this;
+        }
+
+        /**
+         * @return the path in the order the cells were added, costing one per
+         *         step
+         */
+        CellPath build() {
+            return new CellPath(Arrays.copyOf(points, count), size, cols, size - 1);
+        }
+
+        /**
+         * @return the path in the reverse of the order the cells were added,
+         *         for solvers that walk back from the goal
+         */
+        CellPath buildReversed() {
+            return buildReversed(size - 1);
+        }
+
+        /**
+         * @return buildReversed() with the path cost given by the solver
+         */
+        CellPath buildReversed(int cost) {
+            int[] reversed = new int[count];
+            for (int i = 0; i < count; i++)
+                reversed[i] = points[count - 1 - i];
+            return new CellPath(reversed, size, cols, cost);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package finalCode;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * The abstract graph used by HPAStar. The maze is cut into square clusters of
+ * clusterSize x clusterSize cells. Wherever two open cells face each other
+ * across a cluster border, both become abstract nodes joined by an inter edge
+ * of cost 1. Within each cluster, every pair of nodes that is connected
+ * without leaving the cluster gets an intra edge whose cost is their exact
+ * distance inside the cluster.
+ *
+ * Every border crossing becomes a node (rather than one per run of crossings
+ * as in the original HPA* paper): in these mazes a crossing is almost always a
+ * single passage, and keeping all of them makes the abstract search exact.
+ *
+ * Intra distances are found with one BFS per node, restricted to its
+ * cluster; clusters are processed in parallel. Both edge sets are stored in
+ * CSR int arrays. The graph keeps a reference to the maze, which must not
+ * change while the graph is in use.
+ */
+public class ClusterGraph {
+
+    public static final int DEFAULT_CLUSTER_SIZE = 32;
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    final MazeGrid maze;
+    final int rows, cols;
+    final int clusterSize, clusterRows, clusterCols;
+
+    int nodeCount;
+    int[] nodeCell;
+    int[] clusterStart, clusterNodes; // CSR: the nodes of each cluster
+
+    int[] interOffset, interTarget; // CSR: the node across each border
+    int[] intraOffset, intraTarget, intraCost; // CSR: nodes of the same cluster
+
+    private ClusterGraph(MazeGrid maze, int clusterSize) {
+        this.maze = maze;
+        this.rows = maze.rows();
+        this.cols = maze.cols();
+        this.clusterSize = clusterSize;
+        this.clusterRows = (rows + clusterSize - 1) / clusterSize;
+        this.clusterCols = (cols + clusterSize - 1) / clusterSize;
+    }
+
+    public static ClusterGraph build(MazeGrid maze) {
+        return build(maze, DEFAULT_CLUSTER_SIZE);
+    }
+
+    public static ClusterGraph build(MazeGrid maze, int clusterSize) {
+        if (clusterSize < 2)
+            throw new IllegalArgumentException("cluster size must be at least 2, got " + clusterSize);
+        ClusterGraph g = new ClusterGraph(maze, clusterSize);
+        g.findEntrances();
+        g.computeIntraEdges();
+        return g;
+    }
+
+    /**
+     * Collects the open cell pairs across every cluster border and builds the
+     * nodes, the per-cluster node lists and the inter edges.
+     */
+    private void findEntrances() {
+        int[] pairs = new int[64];
+        int pairCount = 0;
+        // vertical borders: (r, b - 1) | (r, b)
+        for (int b = clusterSize; b < cols; b += clusterSize) {
+            for (int r = 0; r < rows; r++) {
+                if (maze.isOpen(r, b - 1) && maze.isOpen(r, b)) {
+                    if (pairCount + 2 > pairs.length)
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    pairs[pairCount++] = r * cols + b - 1;
+                    pairs[pairCount++] = r * cols + b;
+                }
+            }
+        }
+        // horizontal borders: (b - 1, c) over (b, c)
+        for (int b = clusterSize; b < rows; b += clusterSize) {
+            for (int c = 0; c < cols; c++) {
+                if (maze.isOpen(b - 1, c) && maze.isOpen(b, c)) {
+                    if (pairCount + 2 > pairs.length)
+                        pairs = Arrays.copyOf(pairs, pairs.length * 2);
+                    pairs[pairCount++] = (b - 1) * cols + c;
+                    pairs[pairCount++] = b * cols + c;
+                }
+            }
+        }
+
+        // Node ids are positions in the sorted, de-duplicated cell list; a
+        // cell at a cluster corner can be on two borders but gets one node
+        int[] sorted = Arrays.copyOf(pairs, pairCount);
+        Arrays.sort(sorted);
+        for (int i = 0; i < pairCount; i++)
+            if (nodeCount == 0 || sorted[i] != sorted[nodeCount - 1])
+                sorted[nodeCount++] = sorted[i];
+        nodeCell = Arrays.copyOf(sorted, nodeCount);
+        for (int i = 0; i < pairCount; i++)
+            pairs[i] = Arrays.binarySearch(nodeCell, pairs[i]);
+
+        interOffset = new int[nodeCount + 1];
+        for (int i = 0; i < pairCount; i++)
+            interOffset[pairs[i] + 1]++;
+        for (int i = 0; i < nodeCount; i++)
+            interOffset[i + 1] += interOffset[i];
+        interTarget = new int[pairCount];
+        int[] fill = Arrays.copyOf(interOffset, nodeCount);
+        for (int i = 0; i < pairCount; i += 2) {
+            int a = pairs[i], b = pairs[i + 1];
+            interTarget[fill[a]++] = b;
+            interTarget[fill[b]++] = a;
+        }
+
+        int clusters = clusterRows * clusterCols;
+        clusterStart = new int[clusters + 1];
+        for (int n = 0; n < nodeCount; n++)
+            clusterStart[clusterOf(nodeCell[n]) + 1]++;
+        for (int i = 0; i < clusters; i++)
+            clusterStart[i + 1] += clusterStart[i];
+        clusterNodes = new int[nodeCount];
+        fill = Arrays.copyOf(clusterStart, clusters);
+        for (int n = 0; n < nodeCount; n++)
+            clusterNodes[fill[clusterOf(nodeCell[n])]++] = n;
+    }
+
+    /**
+     * One BFS per node inside its cluster, clusters in parallel. Each cluster
+     * writes its edges to its own arrays, which are then concatenated.
+     */
+    private void computeIntraEdges() {
+        int clusters = clusterRows * clusterCols;
+        int[][] targets = new int[clusters][];
+        int[][] costs = new int[clusters][];
+        int[][] counts = new int[clusters][];
+
+        IntStream.range(0, clusters).parallel().forEach(cluster -> {
+            int from = clusterStart[cluster], to = clusterStart[cluster + 1];
+            int k = to - from;
+            int[] dist = new int[clusterSize * clusterSize];
+            int[] queue = new int[clusterSize * clusterSize];
+            int[] t = new int[k * Math.max(k - 1, 1)];
+            int[] c = new int[t.length];
+            int[] n = new int[k];
+            int size = 0;
+            for (int i = 0; i < k; i++) {
+                bfs(cluster, nodeCell[clusterNodes[from + i]], dist, queue);
+                for (int j = 0; j < k; j++) {
+                    int d = dist[local(cluster, nodeCell[clusterNodes[from + j]])];
+                    if (j != i && d >= 0) {
+                        t[size] = clusterNodes[from + j];
+                        c[size++] = d;
+                        n[i]++;
+                    }
+                }
+            }
+            targets[cluster] = t;
+            costs[cluster] = c;
+            counts[cluster] = n;
+        });
+
+        intraOffset = new int[nodeCount + 1];
+        for (int cluster = 0; cluster < clusters; cluster++)
+            for (int i = 0; i < counts[cluster].length; i++)
+                intraOffset[clusterNodes[clusterStart[cluster] + i] + 1] = counts[cluster][i];
+        for (int i = 0; i < nodeCount; i++)
+            intraOffset[i + 1] += intraOffset[i];
+        intraTarget = new int[intraOffset[nodeCount]];
+        intraCost = new int[intraOffset[nodeCount]];
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            int pos = 0;
+            for (int i = 0; i < counts[cluster].length; i++) {
+                int node = clusterNodes[clusterStart[cluster] + i];
+                System.arraycopy(targets[cluster], pos, intraTarget, intraOffset[node], counts[cluster][i]);
+                System.arraycopy(costs[cluster], pos, intraCost, intraOffset[node], counts[cluster][i]);
+                pos += counts[cluster][i];
+            }
+        }
+    }
+
+    int clusterOf(int cell) {
+        return (cell / cols) / clusterSize * clusterCols + (cell % cols) / clusterSize;
+    }
+
+    /**
+     * @return index of cell within its cluster's clusterSize x clusterSize block
+     */
+    int local(int cluster, int cell) {
+        int r0 = cluster / clusterCols * clusterSize;
+        int c0 = cluster % clusterCols * clusterSize;
+        return (cell / cols - r0) * clusterSize + (cell % cols - c0);
+    }
+
+    /**
+     * Breadth-first search from cell without leaving cluster. On return
+     * dist[local(cluster, x)] is the distance to x, or -1 if x cannot be
+     * reached inside the cluster.
+     *
+     * @param dist  at least clusterSize * clusterSize entries
+     * @param queue at least clusterSize * clusterSize entries
+     * @return number of cells visited
+     */
+    int bfs(int cluster, int cell, int[] dist, int[] queue) {
+        int r0 = cluster / clusterCols * clusterSize;
+        int c0 = cluster % clusterCols * clusterSize;
+        int r1 = Math.min(r0 + clusterSize, rows);
+        int c1 = Math.min(c0 + clusterSize, cols);
+        Arrays.fill(dist, 0, clusterSize * clusterSize, -1);
+
+        int head = 0, tail = 0;
+        int start = (cell / cols - r0) * clusterSize + (cell % cols - c0);
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int current = queue[head++];
+            int r = r0 + current / clusterSize;
+            int c = c0 + current % clusterSize;
+            for (int i = 0; i < 4; i++) {
+                int nr = r + DR[i], nc = c + DC[i];
+                if (nr < r0 || nr >= r1 || nc < c0 || nc >= c1 || !maze.isOpen(nr, nc))
+                    continue;
+                int next = (nr - r0) * clusterSize + (nc - c0);
+                if (dist[next] < 0) {
+                    dist[next] = dist[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return tail;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public int clusterSize() {
+        return clusterSize;
+    }
+}
@@ -0,0 +1,255 @@
+package finalCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes ResultRows to a compact binary file of fixed-width columns, 80 bytes
+ * per row, instead of text. Rows are collected into blocks of blockRows; a
+ * full block (or flush) is written with each column stored contiguously, so
+ * a reader can pull one column out of a block without decoding the others.
+ * Solver names are stored once, as ids into a name table in the footer.
+ *
+ * File layout (little-endian):
+ * header (16 bytes): int magic "MZRS", int version, int blockRows, int
+ * reserved.
+ * blocks: int rows (n), int reserved, then the columns: int size[n], float
+ * k[n], long seed[n], int solver[n], long timeNs[n], int explored[n], int
+ * forwardExplored[n], int backwardExplored[n], int pathLength[n], long
+ * allocatedBytes[n], long memoryBytes[n], int gcEvents[n], int pushes[n], int
+ * pops[n], int staleSkips[n], int peakOpenSize[n].
+ * footer: int solver count, each name as a short byte length and UTF-8 bytes,
+ * then long footer offset and int magic, written by close().
+ *
+ * read() loads a whole file back as ResultRows.
+ */
+public class ColumnarResultSink implements ResultSink {
+
+    static final int MAGIC = 0x4D5A5253; // "MZRS"
+    // Version 2 added the bidirectional split and the open list counters
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int ROW_BYTES = 80;
+    static final int TRAILER_BYTES = 12;
+
+    public static final int DEFAULT_BLOCK_ROWS = 1024;
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> solverIds = new HashMap<>();
+    private final List<String> solverNames = new ArrayList<>();
+
+    // The block being filled, one array per column
+    private final int[] sizes, solvers, explored, forward, backward, pathLengths;
+    private final int[] gcEvents, pushes, pops, staleSkips, peakOpen;
+    private final float[] ks;
+    private final long[] seeds, times, allocated, memory;
+    private int count;
+
+    public ColumnarResultSink(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates (or truncates) file, and its parent directories.
+     *
+     * @param blockRows rows per block
+     */
+    public ColumnarResultSink(Path file, int blockRows) throws IOException {
+        if (blockRows < 1)
+            throw new IllegalArgumentException("blockRows must be at least 1, got " + blockRows);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.blockRows = blockRows;
+        buffer = ByteBuffer.allocate(8 + ROW_BYTES * blockRows).order(ByteOrder.LITTLE_ENDIAN);
+        sizes = new int[blockRows];
+        ks = new float[blockRows];
+        seeds = new long[blockRows];
+        solvers = new int[blockRows];
+        times = new long[blockRows];
+        explored = new int[blockRows];
+        forward = new int[blockRows];
+        backward = new int[blockRows];
+        pathLengths = new int[blockRows];
+        allocated = new long[blockRows];
+        memory = new long[blockRows];
+        gcEvents = new int[blockRows];
+        pushes = new int[blockRows];
+        pops = new int[blockRows];
+        staleSkips = new int[blockRows];
+        peakOpen = new int[blockRows];
+
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(blockRows).putInt(0);
+        writeBuffer();
+    }
+
+    @Override
+    public void write(ResultRow row) throws IOException {
+        Integer id = solverIds.get(row.solver);
+        if (id == null) {
+            id = solverNames.size();
+            solverIds.put(row.solver, id);
+            solverNames.add(row.solver);
+        }
+        sizes[count] = row.size;
+        ks[count] = row.k;
+        seeds[count] = row.seed;
+        solvers[count] = id;
+        times[count] = row.executionTime;
+        explored[count] = row.exploredNodes;
+        forward[count] = row.forwardExplored;
+        backward[count] = row.backwardExplored;
+        pathLengths[count] = row.pathLength;
+        allocated[count] = row.allocatedBytes;
+        memory[count] = row.memoryBytes;
+        gcEvents[count] = row.gcEvents;
+        pushes[count] = row.pushes;
+        pops[count] = row.pops;
+        staleSkips[count] = row.staleSkips;
+        peakOpen[count] = row.peakOpenSize;
+        if (++count == blockRows)
+            flush();
+    }
+
+    /**
+     * Writes the rows collected so far as a (possibly short) block.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (count == 0)
+            return;
+        buffer.putInt(count).putInt(0);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(sizes[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putFloat(ks[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putLong(seeds[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(solvers[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putLong(times[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(explored[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(forward[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(backward[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(pathLengths[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putLong(allocated[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putLong(memory[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(gcEvents[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(pushes[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(pops[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(staleSkips[i]);
+        for (int i = 0; i < count; i++)
+            buffer.putInt(peakOpen[i]);
+        writeBuffer();
+        count = 0;
+    }
+
+    /**
+     * Writes the last block and the footer.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            long footer = channel.position();
+            List<byte[]> names = new ArrayList<>();
+            int bytes = 4 + TRAILER_BYTES;
+            for (String name : solverNames) {
+                byte[] utf8 = name.getBytes(StandardCharsets.UTF_8);
+                names.add(utf8);
+                bytes += 2 + utf8.length;
+            }
+            ByteBuffer out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(names.size());
+            for (byte[] utf8 : names)
+                out.putShort((short) utf8.length).put(utf8);
+            out.putLong(footer).putInt(MAGIC);
+            out.flip();
+            while (out.hasRemaining())
+                channel.write(out);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * @return every row of a file written (and closed) by a ColumnarResultSink,
+     *         in write order
+     */
+    public static List<ResultRow> read(Path file) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (in.limit() < HEADER_BYTES + TRAILER_BYTES || in.getInt(0) != MAGIC || in.getInt(4) != VERSION
+                || in.getInt(in.limit() - 4) != MAGIC)
+            throw new IOException("not a closed result file: " + file);
+        int footer = (int) in.getLong(in.limit() - TRAILER_BYTES);
+
+        in.position(footer);
+        String[] names = new String[in.getInt()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] utf8 = new byte[in.getShort() & 0xFFFF];
+            in.get(utf8);
+            names[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        List<ResultRow> rows = new ArrayList<>();
+        int block = HEADER_BYTES;
+        while (block < footer) {
+            int n = in.getInt(block);
+            int size = block + 8, k = size + 4 * n, seed = k + 4 * n, solver = seed + 8 * n;
+            int time = solver + 4 * n, expl = time + 8 * n, fwd = expl + 4 * n, bwd = fwd + 4 * n;
+            int length = bwd + 4 * n, alloc = length + 4 * n, mem = alloc + 8 * n;
+            int gc = mem + 8 * n, push = gc + 4 * n, pop = push + 4 * n, stale = pop + 4 * n, peak = stale + 4 * n;
+            for (int i = 0; i < n; i++) {
+                ResultRow row = new ResultRow(in.getInt(size + 4 * i), in.getFloat(k + 4 * i),
+                        in.getLong(seed + 8 * i), names[in.getInt(solver + 4 * i)]);
+                row.executionTime = in.getLong(time + 8 * i);
+                row.exploredNodes = in.getInt(expl + 4 * i);
+                row.forwardExplored = in.getInt(fwd + 4 * i);
+                row.backwardExplored = in.getInt(bwd + 4 * i);
+                row.pathLength = in.getInt(length + 4 * i);
+                row.allocatedBytes = in.getLong(alloc + 8 * i);
+                row.memoryBytes = in.getLong(mem + 8 * i);
+                row.gcEvents = in.getInt(gc + 4 * i);
+                row.pushes = in.getInt(push + 4 * i);
+                row.pops = in.getInt(pop + 4 * i);
+                row.staleSkips = in.getInt(stale + 4 * i);
+                row.peakOpenSize = in.getInt(peak + 4 * i);
+                rows.add(row);
+            }
+            block = peak + 4 * n;
+        }
+        return rows;
+    }
+}
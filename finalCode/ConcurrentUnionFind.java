@@ -0,0 +1,49 @@
+package finalCode;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free union-find over int elements 0..n-1, safe to use from many
+ * threads at once. parent links live in an AtomicIntegerArray; find shortens
+ * paths by halving with compareAndSet (a failed CAS only means another thread
+ * already shortened the path), and link joins two sets with a single CAS that
+ * only succeeds while its first argument is still a root.
+ *
+ * Which root goes under which is left to the caller: KruskalParallel decides
+ * that with its reservations, so that the joins of a window do not depend on
+ * thread timing. There is no union by rank; path halving is enough for the
+ * wall batches it feeds in.
+ */
+class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            parent.set(i, i);
+    }
+
+    int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x)
+                return x;
+            int gp = parent.get(p);
+            if (gp != p)
+                parent.compareAndSet(x, p, gp); // path halving
+            x = gp;
+        }
+    }
+
+    /**
+     * Links root under target, target being a root or any element of the set
+     * to join.
+     *
+     * @return false, changing nothing, if root is no longer a root (another
+     *         thread linked it first)
+     */
+    boolean link(int root, int target) {
+        return parent.compareAndSet(root, root, target);
+    }
+}
@@ -0,0 +1,79 @@
+package finalCode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes ResultRows as CSV with a header line, through a buffered writer: one
+ * row per line, numbers unformatted (times in ns, memory in bytes), the
+ * solver name quoted only if it contains a comma or a quote.
+ */
+public class CsvResultSink implements ResultSink {
+
+    static final String HEADER = "size,k,seed,solver,time_ns,explored,forward_explored,backward_explored,"
+            + "path_length,allocated_bytes,memory_bytes,gc_events,pushes,pops,stale_skips,peak_open_size";
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(128);
+
+    /**
+     * Creates (or truncates) file, and its parent directories.
+     */
+    public CsvResultSink(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(ResultRow row) throws IOException {
+        line.setLength(0);
+        line.append(row.size).append(',').append(row.k).append(',').append(row.seed).append(',');
+        appendField(row.solver);
+        line.append(',').append(row.executionTime)
+                .append(',').append(row.exploredNodes)
+                .append(',').append(row.forwardExplored)
+                .append(',').append(row.backwardExplored)
+                .append(',').append(row.pathLength)
+                .append(',').append(row.allocatedBytes)
+                .append(',').append(row.memoryBytes)
+                .append(',').append(row.gcEvents)
+                .append(',').append(row.pushes)
+                .append(',').append(row.pops)
+                .append(',').append(row.staleSkips)
+                .append(',').append(row.peakOpenSize)
+                .append('\n');
+        out.append(line);
+    }
+
+    private void appendField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"')
+                line.append('"');
+            line.append(ch);
+        }
+        line.append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
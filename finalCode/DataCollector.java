@@ -1,87 +1,172 @@
 package finalCode;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 public class DataCollector {
     static int SIZES[] = { 101, 501 };
     static float[] kFACTORS = { 0.01f, 0.05f, 0.1f, 0.2f, 0.3f };
     // static float[] kFACTORS = { 0.3f, 0.4f, 0.5f, 0.6f, 0.7f, 0.8f };
     static int SAMPLES = 1;
+    // Open list implementations to sweep; each gets its own row per sample
+    static OpenList.Type[] OPEN_LISTS = { OpenList.Type.BINARY_HEAP };
+
+    // Run the solvers one at a time on the main thread (mazes are still
+    // generated in parallel) when timings must not compete for cores
+    static boolean SERIAL_TIMING = false;
+    // Sample seeds are drawn from SEED, and generated mazes are cached in
+    // MAZE_DIR so later runs load them instead of regenerating
+    static long SEED = 2025L;
+    static String MAZE_DIR = "mazes";
+    // Every result row goes to a CSV and a binary column file in RESULTS_DIR
+    static String RESULTS_DIR = "results";
+
+    // Large mazes for comparing HPA* with the flat solvers; off by default
+    // because a 5001x5001 sweep takes several minutes
+    static boolean RUN_LARGE = false;
+    static int[] LARGE_SIZES = { 2001, 5001 };
+    // IDA* re-expands cells on every iteration; past this many expansions a
+    // search gives up and its row shows a path length of 0
+    static long IDA_BUDGET = 100_000_000L;
+
+    // When set, a maze of every size and k (generated from SEED) is also
+    // searched with a SearchTrace, and the A* and JPS searches are written to PNG_DIR
+    // as trace-<size>-k<k>-<solver>.png (see MazeImage); off by default
+    static String PNG_DIR = null;
+    static int PNG_CELL_SIZE = 1;
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        ExperimentRunner runner = new ExperimentRunner(SIZES, kFACTORS, SAMPLES);
+        runner.setSerial(SERIAL_TIMING);
+        runner.setSeed(SEED);
+        runner.setMazeStore(new MazeStore(Paths.get(MAZE_DIR)));
+
+        // Solver 0 is the indexed A*, which does not use an OpenList; then an
+        // A* and a JPS per open list, and last the two bidirectional searches
+        runner.addSolver("A* indexed", () -> new AStar()::findPathIndexed);
+        for (OpenList.Type type : OPEN_LISTS) {
+            runner.addSolver("A* " + type, () -> new AStar(type.create()));
+            runner.addSolver("JPS " + type, () -> new JPS2(type.create()));
+        }
+        runner.addSolver("A* bidirectional", BidirectionalAStar::new);
+        runner.addSolver("JPS bidirectional", BidirectionalJPS2::new);
+        // Perfect mazes only: the unique tree path, with no search at all. The
+        // tree is built by prepare beforehand, so only the query is timed
+        runner.addSolver("Tree path query", TreePathOracle::new, true, true);
+        try (ResultSink sink = openResults("results")) {
+            runner.setResultSink(sink);
+            runner.run();
+        }
 
-    public static void main(String[] args) throws InterruptedException {
-        WilsonsSimple mazeGenerator = new WilsonsSimple();
-
-        AStar aStar = new AStar();
-        JPS2 jps = new JPS2();
-
-        boolean[][] maze;
-        boolean[][][] mazes = new boolean[SAMPLES][][];
-        for (int size : SIZES) {
-            mazeGenerator.setSize(size, size);
-            mazes = new boolean[SAMPLES][][];
-
-            for (int i = 0; i < SAMPLES; i++) {
-                System.out.print("|");
-                mazes[i] = mazeGenerator.generatePerfectMaze();
-            }
-            System.out.println();
-            Thread.sleep((long) 0.1);
-
-            Summary aStarSummary = new Summary(size);
-            Summary jpsSummary = new Summary(size);
-            printHeader(aStarSummary, jpsSummary);
-            for (int i = 0; i < SAMPLES; i++) {
-                maze = mazes[i];
-                Result aResult = aStar.findPath(maze);
-                Result jResult = jps.findPath(maze);
-                System.out.print((i + 1) + ", " +
-                        aResult.executionTime + ", " + aResult.exploredNodes + ", " +
-                        aResult.path.size());
-                System.out.println(
-                        ", " + jResult.executionTime + ", " + jResult.exploredNodes + ", " +
-                                jResult.path.size());
-                // aStarSummary.addResult(aResult);
-                // jpsSummary.addResult(jResult);
-            }
-            // aStarSummary.evaluate();
-            // jpsSummary.evaluate();
-            System.out.println();
-            // printTable(aStarSummary, jpsSummary);
-
-            for (float k : kFACTORS) {
-                aStarSummary = new Summary(size, k);
-                jpsSummary = new Summary(size, k);
-                mazeGenerator.setImperfection(k);
+        // Summaries of the A* and JPS on the first open list
+        for (int s = 0; s < SIZES.length; s++) {
+            for (int v = 0; v < runner.variants(); v++) {
+                float k = v == 0 ? 0f : kFACTORS[v - 1];
+                Summary aStarSummary = new Summary(SIZES[s], k);
+                Summary jpsSummary = new Summary(SIZES[s], k);
                 printHeader(aStarSummary, jpsSummary);
                 for (int i = 0; i < SAMPLES; i++) {
-
-                    maze = mazeGenerator.imperfectifyMaze(mazes[i]);
-                    Thread.sleep((long) 0.1);
-
-                    Result aResult = aStar.findPath(maze);
-                    Thread.sleep((long) 0.1);
-                    Result jResult = jps.findPath(maze);
-                    // aStarSummary.addResult(aResult);
-                    // jpsSummary.addResult(jResult);
-                    System.out.print((i + 1) + ", " +
-                            aResult.executionTime + ", " + aResult.exploredNodes + ", " +
-                            aResult.path.size());
-                    System.out.println(
-                            ", " + jResult.executionTime + ", " + jResult.exploredNodes + ", " +
-                                    jResult.path.size());
+                    aStarSummary.addResult(runner.getResult(s, v, i, 1));
+                    jpsSummary.addResult(runner.getResult(s, v, i, 2));
                 }
-                // aStarSummary.evaluate();
-                // jpsSummary.evaluate();
+                aStarSummary.evaluate();
+                jpsSummary.evaluate();
                 System.out.println();
-                // printTable(aStarSummary, jpsSummary);
+                printTable(aStarSummary, jpsSummary);
+            }
+        }
+
+        if (RUN_LARGE)
+            runLarge();
+        if (PNG_DIR != null)
+            renderTraces(SIZES);
+    }
+
+    /**
+     * Runs A* indexed and JPS with a SearchTrace on a maze of each size, seeded
+     * with SEED, and its imperfect variants for kFACTORS, and writes each
+     * search to PNG_DIR. The traces are separate from the timed runs.
+     */
+    static void renderTraces(int[] sizes) throws IOException {
+        for (int size : sizes) {
+            MazeGrid perfect = new WilsonsFast(size, size).generatePerfectMaze(SEED);
+            Imperfector imperfector = new Imperfector(perfect, Imperfector.wallSeed(SEED));
+            for (int v = 0; v <= kFACTORS.length; v++) {
+                float k = v == 0 ? 0f : kFACTORS[v - 1];
+                MazeGrid maze = v == 0 ? perfect : imperfector.imperfect(k);
+
+                AStar aStar = new AStar();
+                SearchTrace aStarTrace = new SearchTrace(maze);
+                aStar.setListener(aStarTrace);
+                writeTrace(maze, aStarTrace, aStar.findPathIndexed(maze), size, k, "astar");
+
+                JPS2 jps = new JPS2();
+                SearchTrace jpsTrace = new SearchTrace(maze);
+                jps.setListener(jpsTrace);
+                writeTrace(maze, jpsTrace, jps.findPath(maze), size, k, "jps");
             }
+        }
+    }
+
+    private static void writeTrace(MazeGrid maze, SearchTrace trace, Result result, int size, float k, String solver)
+            throws IOException {
+        Path file = Paths.get(PNG_DIR, "trace-" + size + "-k" + k + "-" + solver + ".png");
+        MazeImage.writePng(MazeImage.render(maze, trace, result.path, PNG_CELL_SIZE), file);
+        System.out.println(file + ": " + trace.expansions() + " expanded");
+    }
 
+    /**
+     * A* indexed, JPS and HPA* on LARGE_SIZES, on mazes from KruskalParallel,
+     * which generates them on all cores (stored under their own names in
+     * MAZE_DIR, apart from the WilsonsFast mazes). HPA* is listed twice: once
+     * including the time to build its abstract graph, once for the query
+     * alone (the graph built by prepare beforehand, as in a batch of queries).
+     * Then the low-memory searches, Fringe Search and IDA*, whose rows also
+     * carry their working memory for the memory vs. time comparison. Rows go
+     * to the "large" result files only.
+     */
+    static void runLarge() throws InterruptedException, IOException {
+        ExperimentRunner runner = new ExperimentRunner(LARGE_SIZES, kFACTORS, SAMPLES);
+        runner.setSerial(SERIAL_TIMING);
+        runner.setSeed(SEED);
+        runner.setMazeStore(new MazeStore(Paths.get(MAZE_DIR)));
+        runner.setGenerator(KruskalParallel::new);
+        runner.addSolver("A* indexed", () -> new AStar()::findPathIndexed);
+        runner.addSolver("JPS", JPS2::new);
+        runner.addSolver("HPA*", HPAStar::new);
+        runner.addSolver("HPA* query", HPAStar::new, false, true);
+        runner.addSolver("Fringe", FringeSearch::new);
+        runner.addSolver("IDA*", () -> new IDAStar(IDA_BUDGET));
+        try (ResultSink sink = openResults("large")) {
+            runner.setResultSink(sink);
+            runner.run();
         }
     }
 
+    /**
+     * Opens RESULTS_DIR/name-SEED.csv and .bin (see CsvResultSink and
+     * ColumnarResultSink), written from a background thread.
+     */
+    static ResultSink openResults(String name) throws IOException {
+        String base = name + "-" + SEED;
+        ResultSink csv = new CsvResultSink(Paths.get(RESULTS_DIR, base + ".csv"));
+        ResultSink columns = new ColumnarResultSink(Paths.get(RESULTS_DIR, base + ".bin"));
+        System.out.println("Writing results to " + Paths.get(RESULTS_DIR, base) + ".csv and .bin");
+        return new AsyncResultSink(csv, columns);
+    }
+
     static void printTable(Summary aStar, Summary jps) {
         System.out.println("\t\t\tA*\t\tJPS");
         System.out.println("Avg. Execution:\t\t" + aStar.averageRuntime + " ns\t" + jps.averageRuntime + " ns");
         System.out.println("Avg. Nodes Explored:\t" + aStar.averageNodesExplored + "\t\t" + jps.averageNodesExplored);
         System.out.println("Avg. Path Length:\t" + aStar.averagePathLength + "\t\t" + jps.averagePathLength);
+        System.out.println("Avg. Allocated:\t\t" + aStar.averageAllocatedBytes + " B\t" + jps.averageAllocatedBytes + " B");
+        System.out.println("Avg. Peak Open:\t\t" + aStar.averagePeakOpenSize + "\t\t" + jps.averagePeakOpenSize);
+        System.out.println("Avg. Pushes/Pops:\t" + aStar.averagePushes + "/" + aStar.averagePops + "\t"
+                + jps.averagePushes + "/" + jps.averagePops);
+        System.out.println("Avg. Stale Skips:\t" + aStar.averageStaleSkips + "\t\t" + jps.averageStaleSkips);
+        System.out.println("GC Events:\t\t" + aStar.totalGcEvents + "\t\t" + jps.totalGcEvents);
         System.out.println("\n");
     }
 
@@ -99,6 +184,12 @@ public class DataCollector {
         private long averageRuntime;
         private float averageNodesExplored;
         private float averagePathLength;
+        private long averageAllocatedBytes;
+        private float averagePeakOpenSize;
+        private float averagePushes;
+        private float averagePops;
+        private float averageStaleSkips;
+        private int totalGcEvents;
 
         private int counter;
 
@@ -123,10 +214,21 @@ public class DataCollector {
                     averageRuntime += r.executionTime;
                     averageNodesExplored += r.exploredNodes;
                     averagePathLength += r.path.size();
+                    averageAllocatedBytes += r.allocatedBytes;
+                    averagePeakOpenSize += r.peakOpenSize;
+                    averagePushes += r.pushes;
+                    averagePops += r.pops;
+                    averageStaleSkips += r.staleSkips;
+                    totalGcEvents += r.gcEvents;
                 }
                 averageRuntime /= results.length;
                 averageNodesExplored /= results.length;
                 averagePathLength /= results.length;
+                averageAllocatedBytes /= results.length;
+                averagePeakOpenSize /= results.length;
+                averagePushes /= results.length;
+                averagePops /= results.length;
+                averageStaleSkips /= results.length;
             }
         }
 
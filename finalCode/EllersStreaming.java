@@ -0,0 +1,194 @@
+package finalCode;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Eller's algorithm, emitting the maze one grid row at a time with O(width)
+ * memory, so mazes far larger than the heap (e.g. 100000x100000) can be
+ * streamed straight into a MazeCorpus file.
+ *
+ * Only the set label of each cell in the current row is kept. Labels are
+ * compacted at the start of every row and merged with a small union-find, so
+ * each row costs O(width) rather than relabelling a whole set per merge.
+ *
+ * The optional imperfection stage runs in the same pass: every wall that
+ * Eller's leaves closed is opened with probability k * E0 / C, where E0 is
+ * the number of tree edges (cells - 1, as in Imperfector) and C the number of
+ * closed walls of a perfect maze. This removes k * E0 walls in expectation
+ * rather than exactly.
+ *
+ * Eller's mazes are perfect but not uniformly distributed like Wilson's.
+ */
+public class EllersStreaming implements MazeGenerator {
+
+    private int WIDTH = 25;
+    private int HEIGHT = 25;
+
+    public EllersStreaming() {
+
+    }
+
+    public EllersStreaming(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    @Override
+    public void setSize(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    @Override
+    public MazeGrid generatePerfectMaze(long seed) {
+        MazeGrid maze = new MazeGrid(HEIGHT, WIDTH);
+        try {
+            generate(seed, 0f, maze::writeRow);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // cannot happen for an in-memory grid
+        }
+        return maze;
+    }
+
+    /**
+     * Streams a maze into the corpus without holding it in memory.
+     *
+     * @return the index of the maze in the corpus
+     */
+    public int writeTo(MazeCorpusWriter writer, long seed, float k) throws IOException {
+        MazeCorpusWriter.RowStream rows = writer.appendRows(HEIGHT, WIDTH, seed, 1, 1, HEIGHT - 2, WIDTH - 2);
+        generate(seed, k, rows);
+        return rows.finish();
+    }
+
+    /**
+     * Generates the maze and hands every grid row to sink, top to bottom.
+     *
+     * @param k imperfection factor, 0 for a perfect maze
+     */
+    public void generate(long seed, float k, RowSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int cw = (WIDTH - 1) / 2;
+        int ch = (HEIGHT - 1) / 2;
+
+        long cells = (long) cw * ch;
+        long closedWalls = (long) Math.max(cw - 1, 0) * ch + (long) cw * Math.max(ch - 1, 0) - (cells - 1);
+        double p = k <= 0 || closedWalls <= 0 ? 0 : Math.min(1.0, k * (cells - 1) / (double) closedWalls);
+
+        long[] row = new long[(WIDTH + 63) >>> 6];
+        int r = 0;
+
+        // Top border
+        emit(sink, r++, row);
+
+        int[] set = new int[cw]; // label of each cell in this row, -1 = none yet
+        int[] next = new int[cw];
+        int[] parent = new int[cw];
+        int[] remap = new int[cw];
+        int[] remapStamp = new int[cw];
+        int[] remaining = new int[cw];
+        boolean[] wentDown = new boolean[cw];
+        Arrays.fill(set, -1);
+
+        for (int y = 0; y < ch && cw > 0; y++) {
+            boolean last = y == ch - 1;
+
+            // Compact the labels carried down from the previous row and give
+            // every other cell a fresh set of its own
+            int labels = 0;
+            for (int x = 0; x < cw; x++) {
+                int l = set[x];
+                if (l >= 0) {
+                    if (remapStamp[l] != y + 1) {
+                        remapStamp[l] = y + 1;
+                        remap[l] = labels++;
+                    }
+                    set[x] = remap[l];
+                }
+            }
+            for (int x = 0; x < cw; x++) {
+                if (set[x] < 0)
+                    set[x] = labels++;
+            }
+            for (int l = 0; l < labels; l++)
+                parent[l] = l;
+
+            // Cell row: open cells, join neighbours in different sets at random
+            // (always on the last row)
+            Arrays.fill(row, 0L);
+            for (int x = 0; x < cw; x++) {
+                open(row, 2 * x + 1);
+                if (x + 1 < cw) {
+                    int a = find(parent, set[x]);
+                    int b = find(parent, set[x + 1]);
+                    if (a != b && (last || random.nextBoolean())) {
+                        parent[b] = a;
+                        open(row, 2 * x + 2);
+                    } else if (p > 0 && random.nextDouble() < p) {
+                        open(row, 2 * x + 2); // imperfection
+                    }
+                }
+            }
+            emit(sink, r++, row);
+
+            // Wall row below: every set needs at least one cell going down
+            Arrays.fill(row, 0L);
+            if (!last) {
+                for (int x = 0; x < cw; x++) {
+                    set[x] = find(parent, set[x]);
+                    remaining[set[x]]++;
+                    wentDown[set[x]] = false;
+                }
+                for (int x = 0; x < cw; x++) {
+                    int s = set[x];
+                    remaining[s]--;
+                    if (random.nextBoolean() || (remaining[s] == 0 && !wentDown[s])) {
+                        wentDown[s] = true;
+                        open(row, 2 * x + 1);
+                        next[x] = s;
+                    } else {
+                        next[x] = -1;
+                        if (p > 0 && random.nextDouble() < p)
+                            open(row, 2 * x + 1); // imperfection
+                    }
+                }
+                int[] t = set;
+                set = next;
+                next = t;
+            }
+            emit(sink, r++, row);
+        }
+
+        // Remaining rows up to the bottom border
+        while (r < HEIGHT) {
+            Arrays.fill(row, 0L);
+            emit(sink, r++, row);
+        }
+    }
+
+    /**
+     * Applies the start/end openings WilsonsSimple makes, then hands the row
+     * to the sink.
+     */
+    private void emit(RowSink sink, int r, long[] row) throws IOException {
+        if (r == 0 || r == 1)
+            open(row, 1); // top entrance and start
+        if (r == HEIGHT - 2 || r == HEIGHT - 1)
+            open(row, WIDTH - 2); // end and bottom exit
+        sink.writeRow(r, row);
+    }
+
+    private static void open(long[] row, int c) {
+        row[c >>> 6] |= 1L << c;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]]; // path halving
+            x = parent[x];
+        }
+        return x;
+    }
+}
@@ -0,0 +1,278 @@
+package finalCode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Runs the DataCollector experiment matrix (size x k x sample x solver) on a
+ * ForkJoinPool instead of one maze at a time on the main thread.
+ *
+ * The run has two phases:
+ * 1. Generation: one task per (size, sample) builds the perfect maze and its
+ * imperfect variants. The variants are prefixes of one shuffled wall
+ * permutation (see Imperfector), so larger k mazes contain the walls removed
+ * for smaller k.
+ * 2. Solving: one task per (size, k, sample, solver). Each task works on its
+ * own copy of the maze and each worker thread has its own solver instances,
+ * since the solvers keep per-call state in fields.
+ *
+ * Sample seeds are drawn from a seed set with setSeed, so a run is
+ * reproducible. With a MazeStore set, mazes are fetched from (and added to) the
+ * on-disk cache instead of being regenerated every run.
+ *
+ * Results go into a fixed slot per task, so the output order is deterministic
+ * no matter which thread finished first. With a ResultSink set, each result
+ * is also written to it as a ResultRow as soon as its task finishes (in
+ * completion order). For timing-sensitive measurements
+ * setSerial(true) runs the solving phase on the calling thread, one task at a
+ * time, while generation still uses the pool.
+ */
+public class ExperimentRunner {
+
+    private final int[] sizes;
+    private final float[] kFactors;
+    private final int samples;
+
+    private final List<String> solverNames = new ArrayList<>();
+    private final List<Supplier<Pathfinder>> solverFactories = new ArrayList<>();
+    private final List<Boolean> solverPerfectOnly = new ArrayList<>();
+    private final List<Boolean> solverPrepared = new ArrayList<>();
+
+    private Supplier<MazeGenerator> generatorFactory = WilsonsFast::new;
+    private MazeStore store;
+    private ResultSink sink;
+    private long seed = new SplittableRandom().nextLong();
+    private boolean serial = false;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private MazeGrid[] mazes; // [size][variant][sample], flattened
+    private long[] sampleSeeds; // [size][sample], flattened
+    private AtomicReferenceArray<Result> results; // [size][variant][sample][solver], flattened
+
+    /**
+     * @param sizes    maze sizes (square)
+     * @param kFactors imperfection factors; variant 0 is always the perfect maze
+     * @param samples  number of mazes per size
+     */
+    public ExperimentRunner(int[] sizes, float[] kFactors, int samples) {
+        this.sizes = sizes;
+        this.kFactors = kFactors;
+        this.samples = samples;
+    }
+
+    /**
+     * Registers a solver. The factory is called once per worker thread.
+     */
+    public void addSolver(String name, Supplier<Pathfinder> factory) {
+        addSolver(name, factory, false);
+    }
+
+    /**
+     * Registers a solver. With perfectOnly it only runs on the perfect maze
+     * (variant 0), for solvers such as TreePathOracle that need a tree; its
+     * results for the other variants are null.
+     */
+    public void addSolver(String name, Supplier<Pathfinder> factory, boolean perfectOnly) {
+        addSolver(name, factory, perfectOnly, false);
+    }
+
+    /**
+     * Registers a solver. With prepared, the runner calls prepare(maze) on
+     * the solver before the measured findPath, so the per-maze preprocessing
+     * (a HPA* cluster graph, a MazeTree) is neither timed nor counted in the
+     * allocations, and the result is the cost of the query alone.
+     */
+    public void addSolver(String name, Supplier<Pathfinder> factory, boolean perfectOnly, boolean prepared) {
+        solverNames.add(name);
+        solverFactories.add(factory);
+        solverPerfectOnly.add(perfectOnly);
+        solverPrepared.add(prepared);
+    }
+
+    /**
+     * Sets the perfect maze generator (WilsonsFast by default). The factory is
+     * called once per generation task.
+     */
+    public void setGenerator(Supplier<MazeGenerator> generatorFactory) {
+        this.generatorFactory = generatorFactory;
+    }
+
+    /**
+     * Caches generated mazes in store, keyed by generator, size, seed and k.
+     */
+    public void setMazeStore(MazeStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Sets the seed the per-sample maze seeds are drawn from.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Streams every result to sink while the run goes on. Solver tasks call
+     * sink.write concurrently, and right after their timed search, so the
+     * sink should be an AsyncResultSink. The runner does not close it.
+     */
+    public void setResultSink(ResultSink sink) {
+        this.sink = sink;
+    }
+
+    public void setSerial(boolean serial) {
+        this.serial = serial;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public List<String> getSolverNames() {
+        return solverNames;
+    }
+
+    /**
+     * @return number of maze variants per sample (the perfect maze plus one per k)
+     */
+    public int variants() {
+        return kFactors.length + 1;
+    }
+
+    public void run() throws InterruptedException {
+        int solvers = solverNames.size();
+        mazes = new MazeGrid[sizes.length * variants() * samples];
+        results = new AtomicReferenceArray<>(mazes.length * solvers);
+        sampleSeeds = new long[sizes.length * samples];
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Phase 1: generate
+            SplittableRandom seeds = new SplittableRandom(seed);
+            List<Callable<Void>> generation = new ArrayList<>();
+            for (int s = 0; s < sizes.length; s++) {
+                for (int i = 0; i < samples; i++) {
+                    int sizeIndex = s, sample = i;
+                    long seed = seeds.nextLong();
+                    sampleSeeds[s * samples + i] = seed;
+                    generation.add(() -> {
+                        generate(sizeIndex, sample, seed);
+                        return null;
+                    });
+                }
+            }
+            invokeAll(pool, generation);
+
+            // Phase 2: solve
+            ThreadLocal<Pathfinder[]> solverInstances = ThreadLocal.withInitial(() -> {
+                Pathfinder[] instances = new Pathfinder[solvers];
+                for (int i = 0; i < solvers; i++)
+                    instances[i] = solverFactories.get(i).get();
+                return instances;
+            });
+            List<Callable<Void>> solving = new ArrayList<>();
+            for (int m = 0; m < mazes.length; m++) {
+                for (int v = 0; v < solvers; v++) {
+                    if (solverPerfectOnly.get(v) && variantOf(m) != 0)
+                        continue;
+                    int mazeIndex = m, solver = v;
+                    boolean prepared = solverPrepared.get(v);
+                    solving.add(() -> {
+                        MazeGrid maze = mazes[mazeIndex].copy();
+                        Pathfinder pathfinder = solverInstances.get()[solver];
+                        if (prepared)
+                            pathfinder.prepare(maze);
+                        Result r = pathfinder.findPathMeasured(maze);
+                        results.set(mazeIndex * solvers + solver, r);
+                        if (sink != null)
+                            sink.write(row(mazeIndex, solver, r));
+                        return null;
+                    });
+                }
+            }
+            if (serial) {
+                for (Callable<Void> task : solving) {
+                    try {
+                        task.call();
+                    } catch (Exception e) {
+                        throw new IllegalStateException("solver task failed", e);
+                    }
+                }
+            } else {
+                invokeAll(pool, solving);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void generate(int sizeIndex, int sample, long seed) throws IOException {
+        int size = sizes[sizeIndex];
+        MazeGenerator generator = generatorFactory.get();
+        MazeGrid maze;
+        MazeGrid[] variants;
+        if (store != null) {
+            maze = store.get(generator, size, size, seed, 0f);
+            variants = store.getVariants(generator, maze, seed, kFactors);
+        } else {
+            generator.setSize(size, size);
+            maze = generator.generatePerfectMaze(seed);
+            variants = new Imperfector(maze, Imperfector.wallSeed(seed)).variants(kFactors);
+        }
+        mazes[mazeIndex(sizeIndex, 0, sample)] = maze;
+        for (int k = 0; k < kFactors.length; k++) {
+            mazes[mazeIndex(sizeIndex, k + 1, sample)] = variants[k];
+        }
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws InterruptedException {
+        for (Future<Void> f : pool.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("experiment task failed", e.getCause());
+            }
+        }
+    }
+
+    private int mazeIndex(int sizeIndex, int variant, int sample) {
+        return (sizeIndex * variants() + variant) * samples + sample;
+    }
+
+    private int variantOf(int mazeIndex) {
+        return mazeIndex / samples % variants();
+    }
+
+    private ResultRow row(int mazeIndex, int solver, Result r) {
+        int sizeIndex = mazeIndex / samples / variants();
+        int variant = variantOf(mazeIndex);
+        float k = variant == 0 ? 0f : kFactors[variant - 1];
+        long seed = getSeed(sizeIndex, mazeIndex % samples);
+        return new ResultRow(sizes[sizeIndex], k, seed, solverNames.get(solver), r);
+    }
+
+    /**
+     * @return the seed the mazes of a sample were generated from
+     */
+    public long getSeed(int sizeIndex, int sample) {
+        return sampleSeeds[sizeIndex * samples + sample];
+    }
+
+    /**
+     * @param sizeIndex index into sizes
+     * @param variant   0 for the perfect maze, k + 1 for kFactors[k]
+     * @param sample    sample number
+     * @param solver    index of the solver in registration order
+     */
+    public Result getResult(int sizeIndex, int variant, int sample, int solver) {
+        return results.get(mazeIndex(sizeIndex, variant, sample) * solverNames.size() + solver);
+    }
+}
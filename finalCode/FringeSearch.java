@@ -0,0 +1,148 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * Fringe Search (Björnsson et al.): IDA*'s thresholds without its repeated
+ * work. The fringe is one doubly linked list over cell indices (prev[] and
+ * next[] int arrays). Each pass walks the list: cells within the f limit are
+ * expanded, their children inserted right after them so they are visited in
+ * this same pass ("now"), and cells over the limit are left where they are
+ * for the next pass ("later"). The next limit is the smallest f skipped.
+ *
+ * There is no priority queue and no parent array: g[] is the only per-cell
+ * score, and the path is recovered by walking back from the goal to any
+ * neighbour whose g is one less. That is 12 bytes per cell in three int
+ * arrays, with nothing allocated during the search.
+ */
+public class FringeSearch implements Pathfinder {
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+    private static final int NOT_LISTED = -2;
+
+    // Reusable buffers, grown to the largest maze seen
+    private int[] gScore = new int[0];
+    private int[] prev = new int[0], next = new int[0];
+    private int head;
+
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int cols = maze.cols();
+        int cells = maze.rows() * cols;
+        int start = startRow * cols + startCol;
+        int goal = endRow * cols + endCol;
+
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol))
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
+
+        if (gScore.length < cells) {
+            gScore = new int[cells];
+            prev = new int[cells];
+            next = new int[cells];
+        }
+        Arrays.fill(gScore, 0, cells, Integer.MAX_VALUE);
+        Arrays.fill(prev, 0, cells, NOT_LISTED);
+
+        gScore[start] = 0;
+        head = start;
+        prev[start] = -1;
+        next[start] = -1;
+        int limit = manhattan(start, goal, cols);
+        int explored = 0;
+        boolean found = false;
+
+        while (!found && head != -1) {
+            int nextLimit = Integer.MAX_VALUE;
+            int cell = head;
+            while (cell != -1) {
+                int g = gScore[cell];
+                int f = g + manhattan(cell, goal, cols);
+                if (f > limit) {
+                    nextLimit = Math.min(nextLimit, f); // later
+                    cell = next[cell];
+                    continue;
+                }
+                if (cell == goal) {
+                    found = true;
+                    break;
+                }
+                explored++;
+
+                // Children go right after cell, so this pass reaches them now
+                int r = cell / cols, c = cell % cols;
+                for (int i = 3; i >= 0; i--) {
+                    int nr = r + DR[i], nc = c + DC[i];
+                    if (!maze.isOpen(nr, nc))
+                        continue;
+                    int child = nr * cols + nc;
+                    if (g + 1 >= gScore[child])
+                        continue;
+                    gScore[child] = g + 1;
+                    if (prev[child] != NOT_LISTED)
+                        unlink(child);
+                    insertAfter(cell, child);
+                }
+                int following = next[cell];
+                unlink(cell);
+                cell = following;
+            }
+            limit = nextLimit;
+        }
+
+        CellPath path = found ? reconstructPath(maze, goal) : CellPath.EMPTY;
+        Result result = new Result(path, System.nanoTime() - startTime, explored);
+        result.memoryBytes = 12L * cells;
+        return result;
+    }
+
+    private void unlink(int cell) {
+        int p = prev[cell], n = next[cell];
+        if (p == -1)
+            head = n;
+        else
+            next[p] = n;
+        if (n != -1)
+            prev[n] = p;
+        prev[cell] = NOT_LISTED;
+    }
+
+    private void insertAfter(int cell, int child) {
+        int n = next[cell];
+        prev[child] = cell;
+        next[child] = n;
+        next[cell] = child;
+        if (n != -1)
+            prev[n] = child;
+    }
+
+    private static int manhattan(int a, int b, int cols) {
+        return Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+    }
+
+    /**
+     * Walks back from the goal, each step to a neighbour with g one lower.
+     * Every g is the length of a real path from the start, so this always
+     * reaches it.
+     */
+    private CellPath reconstructPath(MazeGrid maze, int goal) {
+        int cols = maze.cols();
+        CellPath.Builder path = new CellPath.Builder(cols);
+        int cell = goal;
+        path.add(cell);
+        while (gScore[cell] > 0) {
+            int r = cell / cols, c = cell % cols;
+            for (int i = 0; i < 4; i++) {
+                int nr = r + DR[i], nc = c + DC[i];
+                if (maze.isOpen(nr, nc) && gScore[nr * cols + nc] == gScore[cell] - 1) {
+                    cell = nr * cols + nc;
+                    break;
+                }
+            }
+            path.add(cell);
+        }
+        return path.buildReversed();
+    }
+}
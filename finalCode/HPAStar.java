@@ -0,0 +1,234 @@
+package finalCode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hierarchical A* (HPA*) over a ClusterGraph.
+ *
+ * A query first runs a BFS inside the start cluster and one inside the goal
+ * cluster to connect the two cells to the abstract nodes there (as virtual
+ * nodes nodeCount and nodeCount + 1). A* then searches the abstract graph
+ * with the Manhattan heuristic, and only the clusters on the resulting
+ * abstract path are refined back into cells, again with a cluster-local BFS.
+ *
+ * exploredNodes counts abstract nodes expanded plus the cells visited by the
+ * cluster BFS runs of the query, so it is comparable with the flat solvers.
+ */
+public class HPAStar implements Pathfinder {
+
+    private final int clusterSize;
+
+    // Set by prepare: the abstract graph of preparedMaze, reused by findPath on it
+    private MazeGrid preparedMaze;
+    private ClusterGraph preparedGraph;
+
+    // Reusable buffers, grown to the largest graph seen
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private long[] closed = new long[0];
+    private final IntHeap open = new IntHeap();
+    private final SearchStats stats = new SearchStats();
+    private int[] startDist = new int[0], goalDist = new int[0], refineDist = new int[0], queue = new int[0];
+    private int refineExplored; // cells visited by the BFS runs in refine
+
+    public HPAStar() {
+        this(ClusterGraph.DEFAULT_CLUSTER_SIZE);
+    }
+
+    public HPAStar(int clusterSize) {
+        this.clusterSize = clusterSize;
+    }
+
+    /**
+     * Solves between the two cells. The execution time includes building the
+     * abstract graph unless prepare was called with this maze.
+     */
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        if (maze == preparedMaze)
+            return findPath(preparedGraph, startRow, startCol, endRow, endCol);
+        long startTime = System.nanoTime();
+        ClusterGraph graph = ClusterGraph.build(maze, clusterSize);
+        Result result = findPath(graph, startRow, startCol, endRow, endCol);
+        result.executionTime = System.nanoTime() - startTime;
+        return result;
+    }
+
+    /**
+     * Builds the abstract graph of maze once for a batch of queries on it.
+     */
+    @Override
+    public Object preprocess(MazeGrid maze) {
+        return ClusterGraph.build(maze, clusterSize);
+    }
+
+    @Override
+    public void prepare(MazeGrid maze, Object preprocessed) {
+        if (!(preprocessed instanceof ClusterGraph))
+            throw new IllegalArgumentException("not built by HPAStar.preprocess: " + preprocessed);
+        preparedGraph = (ClusterGraph) preprocessed;
+        preparedMaze = maze;
+    }
+
+    /**
+     * @return Result with the cell path, query time (ns) and explored count,
+     *         or an empty path if the cells are not connected
+     */
+    public Result findPath(ClusterGraph graph, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        MazeGrid maze = graph.maze;
+        int cols = graph.cols;
+        stats.reset();
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol))
+            return stats.copyTo(new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0));
+
+        int n = graph.nodeCount;
+        int S = n, G = n + 1;
+        int start = startRow * cols + startCol;
+        int end = endRow * cols + endCol;
+        int startCluster = graph.clusterOf(start);
+        int goalCluster = graph.clusterOf(end);
+
+        int block = graph.clusterSize * graph.clusterSize;
+        if (queue.length < block) {
+            startDist = new int[block];
+            goalDist = new int[block];
+            refineDist = new int[block];
+            queue = new int[block];
+        }
+        if (gScore.length < n + 2) {
+            gScore = new int[n + 2];
+            parent = new int[n + 2];
+            closed = new long[(n + 2 + 63) >>> 6];
+        } else {
+            Arrays.fill(closed, 0, (n + 2 + 63) >>> 6, 0L);
+        }
+        Arrays.fill(gScore, 0, n + 2, Integer.MAX_VALUE);
+        open.clear();
+
+        // Connect start and goal to the abstract nodes of their clusters
+        int explored = graph.bfs(startCluster, start, startDist, queue);
+        explored += graph.bfs(goalCluster, end, goalDist, queue);
+
+        gScore[S] = 0;
+        parent[S] = -1;
+        for (int i = graph.clusterStart[startCluster]; i < graph.clusterStart[startCluster + 1]; i++) {
+            int node = graph.clusterNodes[i];
+            int d = startDist[graph.local(startCluster, graph.nodeCell[node])];
+            if (d >= 0)
+                relax(graph, node, d, S, endRow, endCol);
+        }
+        if (startCluster == goalCluster && startDist[graph.local(startCluster, end)] >= 0)
+            relax(graph, G, startDist[graph.local(startCluster, end)], S, endRow, endCol);
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            stats.pops++;
+
+            if ((closed[current >>> 6] & (1L << current)) != 0) {
+                stats.staleSkips++;
+                continue;
+            }
+
+            if (current == G) {
+                CellPath path = refine(graph, start, end);
+                return stats.copyTo(new Result(path, System.nanoTime() - startTime, explored + refineExplored));
+            }
+
+            closed[current >>> 6] |= 1L << current;
+            explored++;
+
+            int g = gScore[current];
+            for (int i = graph.interOffset[current]; i < graph.interOffset[current + 1]; i++)
+                relax(graph, graph.interTarget[i], g + 1, current, endRow, endCol);
+            for (int i = graph.intraOffset[current]; i < graph.intraOffset[current + 1]; i++)
+                relax(graph, graph.intraTarget[i], g + graph.intraCost[i], current, endRow, endCol);
+            int cell = graph.nodeCell[current];
+            if (graph.clusterOf(cell) == goalCluster) {
+                int d = goalDist[graph.local(goalCluster, cell)];
+                if (d >= 0)
+                    relax(graph, G, g + d, current, endRow, endCol);
+            }
+        }
+
+        // No path found
+        return stats.copyTo(new Result(CellPath.EMPTY, System.nanoTime() - startTime, explored));
+    }
+
+    private void relax(ClusterGraph graph, int node, int g, int from, int endRow, int endCol) {
+        if ((closed[node >>> 6] & (1L << node)) != 0 || g >= gScore[node])
+            return;
+        gScore[node] = g;
+        parent[node] = from;
+        int h = 0;
+        if (node < graph.nodeCount) {
+            int cell = graph.nodeCell[node];
+            h = Math.abs(cell / graph.cols - endRow) + Math.abs(cell % graph.cols - endCol);
+        }
+        open.push(g + h, node);
+        stats.pushed(open.size());
+    }
+
+    /**
+     * Turns the abstract path into cells. Inter edges are single steps; every
+     * other hop lies inside one cluster and is filled in by walking down the
+     * BFS distances from its far end.
+     */
+    private CellPath refine(ClusterGraph graph, int start, int end) {
+        int n = graph.nodeCount;
+        int cols = graph.cols;
+
+        List<Integer> cells = new ArrayList<>();
+        cells.add(end);
+        for (int node = parent[n + 1]; node != n; node = parent[node])
+            cells.add(graph.nodeCell[node]);
+        cells.add(start);
+
+        refineExplored = 0;
+        CellPath.Builder path = new CellPath.Builder(cols);
+        path.add(start);
+        for (int i = cells.size() - 1; i > 0; i--) {
+            int from = cells.get(i), to = cells.get(i - 1);
+            int cluster = graph.clusterOf(from);
+            if (cluster != graph.clusterOf(to)) {
+                path.add(to); // inter edge
+                continue;
+            }
+            int[] dist;
+            if (to == end) {
+                dist = goalDist; // already searched from the goal
+            } else {
+                refineExplored += graph.bfs(cluster, to, refineDist, queue);
+                dist = refineDist;
+            }
+            int cell = from;
+            while (cell != to) {
+                int r = cell / cols, c = cell % cols;
+                int d = dist[graph.local(cluster, cell)];
+                int next = -1;
+                if (r > 0 && sameStep(graph, cluster, dist, (r - 1) * cols + c, d))
+                    next = (r - 1) * cols + c;
+                else if (r + 1 < graph.rows && sameStep(graph, cluster, dist, (r + 1) * cols + c, d))
+                    next = (r + 1) * cols + c;
+                else if (c > 0 && sameStep(graph, cluster, dist, cell - 1, d))
+                    next = cell - 1;
+                else
+                    next = cell + 1;
+                path.add(next);
+                cell = next;
+            }
+        }
+        return path.build();
+    }
+
+    /**
+     * @return true if cell is in cluster, open and one step closer than d
+     */
+    private static boolean sameStep(ClusterGraph graph, int cluster, int[] dist, int cell, int d) {
+        return graph.clusterOf(cell) == cluster && graph.maze.isOpen(cell / graph.cols, cell % graph.cols)
+                && dist[graph.local(cluster, cell)] == d - 1;
+    }
+}
@@ -0,0 +1,152 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * Iterative-deepening A*: repeated depth-first searches, each pruning paths
+ * whose f = g + h exceeds a threshold, which then grows to the smallest f
+ * that was pruned. Only the current path is kept: an explicit stack of cells
+ * and next directions (no recursion) plus a bitset marking the cells on it,
+ * so memory is one bit per cell plus the path, instead of A*'s open list and
+ * per-cell scores.
+ *
+ * The price is re-expansion: every iteration repeats the previous one, and
+ * without a closed set a cell reachable by several loop-free routes is
+ * searched once per route. That is cheap on perfect mazes (a tree) but grows
+ * quickly with k, so a search can be capped with maxExpansions; a capped
+ * search returns an empty path.
+ *
+ * exploredNodes counts every expansion over all iterations.
+ */
+public class IDAStar implements Pathfinder {
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final long maxExpansions;
+
+    // Reusable buffers
+    private int[] stackCell = new int[256];
+    private byte[] stackDir = new byte[256];
+    private long[] onPath = new long[0];
+
+    public IDAStar() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxExpansions give up after this many expansions in total
+     */
+    public IDAStar(long maxExpansions) {
+        this.maxExpansions = maxExpansions;
+    }
+
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int cols = maze.cols();
+        int cells = maze.rows() * cols;
+        int start = startRow * cols + startCol;
+        int goal = endRow * cols + endCol;
+
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol))
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
+
+        if (onPath.length < (cells + 63) >>> 6)
+            onPath = new long[(cells + 63) >>> 6];
+        else
+            Arrays.fill(onPath, 0, (cells + 63) >>> 6, 0L);
+
+        long explored = 0;
+        int peakDepth = 0;
+        int threshold = manhattan(start, goal, cols);
+        while (true) {
+            int next = Integer.MAX_VALUE;
+            int depth = 0; // also g of the cell on top
+            stackCell[0] = start;
+            stackDir[0] = 0;
+            onPath[start >>> 6] |= 1L << start;
+            if (start == goal)
+                return result(maze, 0, startTime, explored, peakDepth);
+            explored++;
+
+            while (depth >= 0) {
+                int cell = stackCell[depth];
+                int dir = stackDir[depth];
+                if (dir == 4) {
+                    onPath[cell >>> 6] &= ~(1L << cell);
+                    depth--;
+                    continue;
+                }
+                stackDir[depth]++;
+
+                int r = cell / cols + DR[dir], c = cell % cols + DC[dir];
+                if (!maze.isOpen(r, c))
+                    continue;
+                int child = r * cols + c;
+                if ((onPath[child >>> 6] & (1L << child)) != 0)
+                    continue;
+                int f = depth + 1 + manhattan(child, goal, cols);
+                if (f > threshold) {
+                    next = Math.min(next, f);
+                    continue;
+                }
+
+                depth++;
+                if (depth == stackCell.length) {
+                    stackCell = Arrays.copyOf(stackCell, depth * 2);
+                    stackDir = Arrays.copyOf(stackDir, depth * 2);
+                }
+                stackCell[depth] = child;
+                stackDir[depth] = 0;
+                onPath[child >>> 6] |= 1L << child;
+                peakDepth = Math.max(peakDepth, depth);
+                if (child == goal)
+                    return result(maze, depth, startTime, explored, peakDepth);
+                if (++explored > maxExpansions)
+                    return capped(startTime, explored, peakDepth, cells);
+            }
+
+            if (next == Integer.MAX_VALUE) {
+                // No path found
+                Result result = new Result(CellPath.EMPTY, System.nanoTime() - startTime, clamp(explored));
+                result.memoryBytes = memory(peakDepth, cells);
+                return result;
+            }
+            threshold = next;
+        }
+    }
+
+    private Result result(MazeGrid maze, int depth, long startTime, long explored, int peakDepth) {
+        int cols = maze.cols();
+        CellPath.Builder path = new CellPath.Builder(cols);
+        for (int i = 0; i <= depth; i++)
+            path.add(stackCell[i]);
+        Result result = new Result(path.build(), System.nanoTime() - startTime, clamp(explored));
+        result.memoryBytes = memory(peakDepth, maze.rows() * cols);
+        return result;
+    }
+
+    private Result capped(long startTime, long explored, int peakDepth, int cells) {
+        Result result = new Result(CellPath.EMPTY, System.nanoTime() - startTime, clamp(explored));
+        result.memoryBytes = memory(peakDepth, cells);
+        return result;
+    }
+
+    /**
+     * Bytes the search needs: the on-path bitset plus an int and a byte per
+     * stack level.
+     */
+    private static long memory(int peakDepth, int cells) {
+        return 8L * ((cells + 63) >>> 6) + 5L * (peakDepth + 1);
+    }
+
+    private static int clamp(long explored) {
+        return (int) Math.min(explored, Integer.MAX_VALUE);
+    }
+
+    private static int manhattan(int a, int b, int cols) {
+        return Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+    }
+}
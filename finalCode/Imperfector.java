@@ -0,0 +1,140 @@
+package finalCode;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Turns a perfect maze into imperfect ones by removing extra walls.
+ *
+ * The candidate walls (closed walls between two adjacent open cells) are
+ * enumerated in a single pass over the cell lattice and shuffled once with
+ * Fisher-Yates. An imperfection factor k then removes the first
+ * round(k * E0) walls of that permutation, where E0 is the number of edges of
+ * the spanning tree (cells - 1), the same definition WilsonsSimple uses.
+ *
+ * Because every k is a prefix of the same permutation, the variants for all
+ * of DataCollector.kFACTORS are nested and can be derived in O(walls) total
+ * instead of regenerating candidates for each k.
+ */
+public class Imperfector {
+
+    private final MazeGrid base;
+    private final int[] walls; // wall cells as row * cols + col, shuffled
+    private final int edges; // E0
+
+    public Imperfector(MazeGrid perfect, long seed) {
+        this.base = perfect;
+        int rows = perfect.rows();
+        int cols = perfect.cols();
+        edges = ((cols - 1) / 2) * ((rows - 1) / 2) - 1;
+
+        // Each candidate is found once, from its top/left cell
+        int[] found = new int[Math.max(0, 2 * ((cols - 1) / 2) * ((rows - 1) / 2))];
+        int count = 0;
+        for (int y = 1; y < rows - 1; y += 2) {
+            for (int x = 1; x < cols - 1; x += 2) {
+                if (!perfect.isOpen(y, x))
+                    continue;
+                if (x + 2 < cols - 1 && !perfect.isOpen(y, x + 1) && perfect.isOpen(y, x + 2))
+                    found[count++] = y * cols + x + 1;
+                if (y + 2 < rows - 1 && !perfect.isOpen(y + 1, x) && perfect.isOpen(y + 2, x))
+                    found[count++] = (y + 1) * cols + x;
+            }
+        }
+        walls = Arrays.copyOf(found, count);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = walls.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = walls[i];
+            walls[i] = walls[j];
+            walls[j] = t;
+        }
+    }
+
+    /**
+     * Derives the shuffle seed for a maze generated from mazeSeed. The
+     * generators seed a SplittableRandom with mazeSeed too, so shuffling with
+     * the same seed would replay their random stream and tie the walls opened
+     * to the maze's structure; a split-off stream is independent of it.
+     */
+    public static long wallSeed(long mazeSeed) {
+        return new SplittableRandom(mazeSeed).split().nextLong();
+    }
+
+    /**
+     * @return the number of candidate walls
+     */
+    public int wallCount() {
+        return walls.length;
+    }
+
+    /**
+     * @return how many walls factor k removes
+     */
+    public int wallsFor(float k) {
+        return Math.min(Math.round(k * edges), walls.length);
+    }
+
+    /**
+     * @return the i-th wall of the permutation as row * cols + col
+     */
+    public int wall(int i) {
+        return walls[i];
+    }
+
+    /**
+     * Opens walls [from, to) of the permutation in maze.
+     */
+    public void openWalls(MazeGrid maze, int from, int to) {
+        int cols = maze.cols();
+        for (int i = from; i < to; i++)
+            maze.open(walls[i] / cols, walls[i] % cols);
+    }
+
+    /**
+     * Opens walls [from, to) of the permutation in maze and updates graph,
+     * which must have been built from maze, to match.
+     */
+    public void openWalls(MazeGrid maze, int from, int to, JunctionGraph graph) {
+        int cols = maze.cols();
+        for (int i = from; i < to; i++) {
+            maze.open(walls[i] / cols, walls[i] % cols);
+            graph.openCell(maze, walls[i] / cols, walls[i] % cols);
+        }
+    }
+
+    /**
+     * @return a new grid: the perfect maze with factor k applied
+     */
+    public MazeGrid imperfect(float k) {
+        MazeGrid maze = base.copy();
+        openWalls(maze, 0, wallsFor(k));
+        return maze;
+    }
+
+    /**
+     * Builds the imperfect variant for each k. The walls are opened
+     * incrementally on one working grid in ascending k order, so the total
+     * work is O(walls) plus one grid copy per variant.
+     *
+     * @return variants[i] is the maze for kFactors[i]
+     */
+    public MazeGrid[] variants(float[] kFactors) {
+        Integer[] order = new Integer[kFactors.length];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        Arrays.sort(order, (a, b) -> Float.compare(kFactors[a], kFactors[b]));
+
+        MazeGrid[] variants = new MazeGrid[kFactors.length];
+        MazeGrid work = base.copy();
+        int opened = 0;
+        for (int i : order) {
+            int target = wallsFor(kFactors[i]);
+            openWalls(work, opened, target);
+            opened = Math.max(opened, target);
+            variants[i] = work.copy();
+        }
+        return variants;
+    }
+}
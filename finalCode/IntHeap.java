@@ -0,0 +1,101 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int values keyed by int priorities, stored in two
+ * parallel int arrays. Used by the primitive-indexed solvers so that pushing
+ * and popping cells does not allocate or box anything.
+ *
+ * Duplicate values are allowed (no decrease-key); callers are expected to skip
+ * stale entries when they are popped, the same way the Node based solvers do.
+ */
+class IntHeap {
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    IntHeap() {
+        this(256);
+    }
+
+    IntHeap(int capacity) {
+        keys = new int[Math.max(capacity, 2)];
+        values = new int[keys.length];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the number of entries the arrays hold before growing again.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * @return the key of the minimum entry (undefined if empty).
+     */
+    int peekKey() {
+        return keys[0];
+    }
+
+    void push(int key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int i = size++;
+        // sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /**
+     * Removes the minimum entry and returns its value.
+     */
+    int pop() {
+        int result = values[0];
+        int last = --size;
+        if (last > 0) {
+            int key = keys[last];
+            int value = values[last];
+            int i = 0;
+            // sift down
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= last)
+                    break;
+                if (child + 1 < last && keys[child + 1] < keys[child])
+                    child++;
+                if (keys[child] >= key)
+                    break;
+                keys[i] = keys[child];
+                values[i] = values[child];
+                i = child;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+        return result;
+    }
+}
@@ -2,71 +2,91 @@ package finalCode;
 
 import java.util.*;
 
-public class JPS {
+public class JPS implements Pathfinder {
 
     // (Unused constants from your snippet left here in case you use them elsewhere)
     static final int SAMPLES = 10;
     static final int HEIGHT = 501;
     static final int WIDTH = 501;
 
+    private final OpenList openList;
+    private final SearchStats stats = new SearchStats();
+
+    public JPS() {
+        this(new BinaryHeapOpenList()); // f, tie-breaker on heuristic
+    }
+
     /**
-     * Finds the shortest path in a maze from (1,1) to (rows-2, cols-2) using the JPS algorithm.
-     * Assumes boundary walls if you used that convention. Change start/end if you need.
+     * @param openList the open list strategy used by findPath
+     */
+    public JPS(OpenList openList) {
+        this.openList = openList;
+    }
+
+    /**
+     * Convenience overload for boolean[][] mazes (true = walkable, false = wall).
+     */
+    public Result findPath(boolean[][] maze) {
+        return findPath(MazeGrid.of(maze));
+    }
+
+    /**
+     * Finds the shortest path in a maze between two cells using the JPS algorithm.
+     * findPath(maze) uses (1,1) to (rows-2, cols-2).
      *
-     * @param maze A 2D boolean array representing the maze. true = walkable, false = wall.
+     * @param maze The maze grid. open = walkable, closed = wall.
      * @return A Result object containing the path (list of Nodes), execution time (ns), and number
      *         of explored nodes.
      */
-    public Result findPath(boolean[][] maze) {
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
         long startTime = System.nanoTime();
 
-        // Default start & goal (you can adapt these to parameters if required)
-        Node startNode = new Node(1, 1);
-        Node endNode = new Node(maze.length - 2, maze[0].length - 2);
+        Node startNode = new Node(startRow, startCol);
+        Node endNode = new Node(endRow, endCol);
 
-        Comparator<Node> cmp = Comparator
-                .comparingInt((Node n) -> n.f)
-                .thenComparingInt(n -> n.h); // tie-breaker on heuristic
-
-        PriorityQueue<Node> openList = new PriorityQueue<>(cmp);
-        Set<String> closedList = new HashSet<>();
-        Map<String, Node> openMap = new HashMap<>();
+        openList.clear(maze.rows(), maze.cols());
+        stats.reset();
+        // Closed cells and best g per cell, by flat index instead of String keys
+        int cols = maze.cols();
+        SearchWorkspace ws = SearchWorkspace.get().begin(maze.rows() * cols);
 
         startNode.g = 0;
         startNode.h = calculateHeuristic(startNode, endNode);
         startNode.f = startNode.g + startNode.h;
-        openList.add(startNode);
-        openMap.put(key(startNode.row, startNode.col), startNode);
+        openList.push(startNode);
+        stats.pushed(openList.size());
+        ws.set(startNode.row * cols + startNode.col, 0, -1);
 
         int exploredNodes = 0;
 
         while (!openList.isEmpty()) {
             Node currentNode = openList.poll();
-            String currentKey = key(currentNode.row, currentNode.col);
-            openMap.remove(currentKey);
+            stats.pops++;
+            int current = currentNode.row * cols + currentNode.col;
 
-            if (closedList.contains(currentKey)) {
+            if (ws.isClosed(current)) {
+                stats.staleSkips++;
                 continue;
             }
 
             // Check goal
             if (currentNode.row == endNode.row && currentNode.col == endNode.col) {
-                List<Node> path = reconstructPath(currentNode);
+                CellPath path = reconstructPath(currentNode, cols);
                 long endTime = System.nanoTime();
-                System.out.println("Path Found");
-                return new Result(path, endTime - startTime, exploredNodes);
+                return stats.copyTo(new Result(path, endTime - startTime, exploredNodes));
             }
 
-            closedList.add(currentKey);
+            ws.close(current);
             exploredNodes++;
 
             // Get jump point successors
             List<Node> successors = getSuccessors(currentNode, maze, endNode);
 
             for (Node successor : successors) {
-                String successorKey = key(successor.row, successor.col);
+                int next = successor.row * cols + successor.col;
 
-                if (closedList.contains(successorKey)) {
+                if (ws.isClosed(next)) {
                     continue;
                 }
 
@@ -74,31 +94,24 @@ public class JPS {
                 int distance = Math.abs(successor.row - currentNode.row) + Math.abs(successor.col - currentNode.col);
                 int tentativeG = currentNode.g + distance;
 
-                Node existingNode = openMap.get(successorKey);
-                if (existingNode == null || tentativeG < existingNode.g) {
+                if (tentativeG < ws.g(next)) {
+                    ws.set(next, tentativeG, current);
                     successor.parent = currentNode;
                     successor.g = tentativeG;
                     successor.h = calculateHeuristic(successor, endNode);
                     successor.f = successor.g + successor.h;
 
-                    if (existingNode != null) {
-                        openList.remove(existingNode); // O(n) remove, acceptable for small grids
-                    }
-
-                    openList.add(successor);
-                    openMap.put(successorKey, successor);
+                    // Any worse entry left in the open list is skipped as stale once
+                    // this one is closed (or replaced by a decrease-key open list)
+                    openList.push(successor);
+                    stats.pushed(openList.size());
                 }
             }
         }
 
         long endTime = System.nanoTime();
         // No path found
-        System.out.println("Path NOT Found");
-        return new Result(null, endTime - startTime, exploredNodes);
-    }
-
-    private String key(int r, int c) {
-        return r + "," + c;
+        return stats.copyTo(new Result(CellPath.EMPTY, endTime - startTime, exploredNodes));
     }
 
     /**
@@ -112,7 +125,7 @@ public class JPS {
      * Get successors for JPS from node.
      * If node.parent == null, explore all 8 directions; otherwise explore natural neighbors.
      */
-    private List<Node> getSuccessors(Node node, boolean[][] maze, Node goal) {
+    private List<Node> getSuccessors(Node node, MazeGrid maze, Node goal) {
         List<Node> successors = new ArrayList<>();
 
         if (node.parent == null) {
@@ -147,7 +160,7 @@ public class JPS {
     /**
      * Jump function: recursively step in direction (dx,dy) until a jump point or obstacle/goal.
      */
-    private Node jump(int row, int col, int dx, int dy, boolean[][] maze, Node goal) {
+    private Node jump(int row, int col, int dx, int dy, MazeGrid maze, Node goal) {
         int newRow = row + dx;
         int newCol = col + dy;
 
@@ -182,7 +195,7 @@ public class JPS {
      *
      * Using row/col indexing where dx affects row and dy affects col.
      */
-    private boolean hasForcedNeighbors(int row, int col, int dx, int dy, boolean[][] maze) {
+    private boolean hasForcedNeighbors(int row, int col, int dx, int dy, MazeGrid maze) {
         // Diagonal movement
         if (dx != 0 && dy != 0) {
             // If one of the side neighbors is blocked but the corresponding diagonal is free -> forced
@@ -213,7 +226,7 @@ public class JPS {
      * Get natural neighbors based on parent direction. (Simplified prune.)
      * Returns only natural neighbors - forced neighbors are detected in jump().
      */
-    private List<int[]> getNeighbors(Node node, boolean[][] maze) {
+    private List<int[]> getNeighbors(Node node, MazeGrid maze) {
         List<int[]> neighbors = new ArrayList<>();
 
         int dx = Integer.signum(node.row - node.parent.row);
@@ -244,28 +257,28 @@ public class JPS {
     /**
      * Helper: true if out-of-bounds or wall -> treated as blocked.
      */
-    private boolean isBlocked(int row, int col, boolean[][] maze) {
-        return row < 0 || row >= maze.length || col < 0 || col >= maze[0].length || !maze[row][col];
+    private boolean isBlocked(int row, int col, MazeGrid maze) {
+        return !maze.isOpen(row, col);
     }
 
     /**
      * Helper: true if inside bounds and walkable.
      */
-    private boolean isWalkable(int row, int col, boolean[][] maze) {
-        return row >= 0 && row < maze.length && col >= 0 && col < maze[0].length && maze[row][col];
+    private boolean isWalkable(int row, int col, MazeGrid maze) {
+        return maze.isOpen(row, col);
     }
 
     /**
-     * Reconstruct path by following parent pointers.
+     * Reconstruct path by following parent pointers. The jump points are the
+     * waypoints; the cells between them are implied.
      */
-    private List<Node> reconstructPath(Node endNode) {
-        List<Node> path = new ArrayList<>();
+    private CellPath reconstructPath(Node endNode, int cols) {
+        CellPath.Builder path = new CellPath.Builder(cols);
         Node current = endNode;
         while (current != null) {
-            path.add(current);
+            path.add(current.row * cols + current.col);
             current = current.parent;
         }
-        Collections.reverse(path);
-        return path;
+        return path.buildReversed();
     }
 }
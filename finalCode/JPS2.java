@@ -6,7 +6,7 @@ import java.util.*;
  * A Jump-Point-Search-like implementation restricted to 4-connected grids.
  *
  * Notes/assumptions:
- * - The maze is a boolean[][] passed to findPath().
+ * - The maze is a MazeGrid (or boolean[][]) passed to findPath().
  * **true** = free/passable, **false** = blocked/wall.
  * - Movement cost for every step is 1 (uniform-cost grid).
  * - Heuristic: Manhattan distance.
@@ -18,64 +18,145 @@ import java.util.*;
  * (where the
  * local passable-neighbour pattern changes).
  */
-public class JPS2 {
+public class JPS2 implements Pathfinder {
 
-    // Directions: up, down, left, right
+    // Directions: up, down, left, right (same order as JumpTable)
     private final int[][] DIRS = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
 
     private int rows, cols;
 
+    private final OpenList open;
+    private final SearchStats stats = new SearchStats();
+    private SearchListener listener;
+
+    // Set by prepare: a jump table for preparedMaze, used by findPath on it
+    private MazeGrid preparedMaze;
+    private JumpTable preparedTable;
+
+    public JPS2() {
+        this(new BinaryHeapOpenList());
+    }
+
     /**
-     * Find a path using a 4-connected Jump-Point-Search-like algorithm.
+     * @param open the open list strategy used by findPath
+     */
+    public JPS2(OpenList open) {
+        this.open = open;
+    }
+
+    /**
+     * @param listener told of every push, expansion and jump point found
+     *                 (e.g. a SearchTrace), or null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Convenience overload for boolean[][] mazes (true = free, false = wall).
+     */
+    public Result findPath(boolean[][] maze) {
+        if (maze == null)
+            throw new IllegalStateException("maze must be provided");
+        return findPath(MazeGrid.of(maze));
+    }
+
+    /**
+     * Find a path using a 4-connected Jump-Point-Search-like algorithm. If
+     * prepare was called with this maze, the jump table it built is used.
      *
-     * @param maze boolean[][] maze where true = free, false = wall
+     * @param maze maze grid where open = free, closed = wall
      * @return Result containing path (list of Nodes from start to target),
      *         execution time (ns), and explored node count
      */
-    public Result findPath(boolean[][] maze) {
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        JumpTable table = maze == preparedMaze ? preparedTable : null;
+        return search(maze, table, startRow, startCol, endRow, endCol);
+    }
+
+    /**
+     * Builds a jump table for maze, used by every findPath on it until
+     * prepare is called with another maze.
+     */
+    @Override
+    public Object preprocess(MazeGrid maze) {
+        return JumpTable.build(maze);
+    }
+
+    @Override
+    public void prepare(MazeGrid maze, Object preprocessed) {
+        if (!(preprocessed instanceof JumpTable))
+            throw new IllegalArgumentException("not built by JPS2.preprocess: " + preprocessed);
+        preparedTable = (JumpTable) preprocessed;
+        preparedMaze = maze;
+    }
+
+    /**
+     * Query mode for repeated searches on one maze: successors are read from a
+     * precomputed JumpTable in O(1) instead of scanning each corridor.
+     *
+     * @param maze  maze grid where open = free, closed = wall
+     * @param table jump table built from this maze with JumpTable.build
+     * @return Result containing path, execution time (ns), and explored node
+     *         count
+     */
+    public Result findPath(MazeGrid maze, JumpTable table) {
+        return findPath(maze, table, 1, 1, maze.rows() - 2, maze.cols() - 2);
+    }
+
+    /**
+     * Jump table query mode between explicit start and target cells.
+     */
+    public Result findPath(MazeGrid maze, JumpTable table, int startRow, int startCol, int endRow, int endCol) {
+        if (table.rows() != maze.rows() || table.cols() != maze.cols())
+            throw new IllegalArgumentException("jump table was built for a different maze");
+        return search(maze, table, startRow, startCol, endRow, endCol);
+    }
+
+    private Result search(MazeGrid maze, JumpTable table, int sr, int sc, int tr, int tc) {
         long t0 = System.nanoTime();
-        int sr, sc, tr, tc;
 
         if (maze == null)
             throw new IllegalStateException("maze must be provided");
-        rows = maze.length;
-        cols = maze[0].length;
-        sr = 1;
-        sc = 1;
-        tr = rows - 2;
-        tc = cols - 2;
-
-        if (!inBounds(sr, sc) || !inBounds(tr, tc) || !maze[sr][sc] || !maze[tr][tc]) {
-            return new Result(Collections.emptyList(), 0L, 0);
+        rows = maze.rows();
+        cols = maze.cols();
+
+        if (!maze.isOpen(sr, sc) || !maze.isOpen(tr, tc)) {
+            return new Result(CellPath.EMPTY, 0L, 0);
         }
 
-        Node[][] nodes = new Node[rows][cols];
-        int INF = Integer.MAX_VALUE / 4;
-        int[][] gScore = new int[rows][cols];
-        for (int i = 0; i < rows; i++)
-            Arrays.fill(gScore[i], INF);
-        boolean[][] closed = new boolean[rows][cols];
+        // Best g and closed flags per cell; reset in O(1), not per cell
+        SearchWorkspace ws = SearchWorkspace.get().begin(rows * cols);
 
-        PriorityQueue<Node> open = new PriorityQueue<>(
-                Comparator.<Node>comparingInt(a -> a.f).thenComparingInt(a -> a.h));
+        open.clear(rows, cols);
+        stats.reset();
 
         Node start = new Node(sr, sc);
         start.g = 0;
         start.h = manhattan(sr, sc, tr, tc);
         start.f = start.g + start.h;
-        nodes[sr][sc] = start;
-        gScore[sr][sc] = 0;
-        open.add(start);
+        ws.set(sr * cols + sc, 0, -1);
+        open.push(start);
+        stats.pushed(open.size());
+        if (listener != null)
+            listener.pushed(sr * cols + sc);
 
         int explored = 0;
         Node goalNode = null;
 
         while (!open.isEmpty()) {
             Node cur = open.poll();
-            if (closed[cur.row][cur.col])
+            stats.pops++;
+            int current = cur.row * cols + cur.col;
+            if (ws.isClosed(current)) {
+                stats.staleSkips++;
                 continue; // skip stale entries
-            closed[cur.row][cur.col] = true;
+            }
+            ws.close(current);
             explored++;
+            if (listener != null)
+                listener.expanded(current);
 
             if (cur.row == tr && cur.col == tc) {
                 goalNode = cur;
@@ -83,56 +164,72 @@ public class JPS2 {
             }
 
             // Generate successors by attempting a "jump" in all 4 cardinal directions
-            for (int[] d : DIRS) {
-                int nr = cur.row + d[0];
-                int nc = cur.col + d[1];
-                if (!inBounds(nr, nc) || !maze[nr][nc])
-                    continue; // immediate neighbor blocked or out
-
-                Node jumpPoint = jump(maze, nr, nc, d[0], d[1], tr, tc);
-                if (jumpPoint == null)
-                    continue;
-
-                int jr = jumpPoint.row;
-                int jc = jumpPoint.col;
-
-                // create or reuse node
-                Node jp = nodes[jr][jc];
-                if (jp == null) {
-                    jp = new Node(jr, jc, d[0], d[1]);
-                    nodes[jr][jc] = jp;
+            for (int i = 0; i < DIRS.length; i++) {
+                int[] d = DIRS[i];
+                int jr, jc;
+                if (table != null) {
+                    int dist = table.distance(i, cur.row * cols + cur.col);
+                    if (dist == 0)
+                        continue; // immediate neighbor blocked or out
+
+                    // stop early if the goal lies on the jumped segment
+                    boolean inLine = d[0] != 0 ? tc == cur.col : tr == cur.row;
+                    int toGoal = d[0] != 0 ? (tr - cur.row) * d[0] : (tc - cur.col) * d[1];
+                    if (inLine && toGoal > 0 && toGoal < dist)
+                        dist = toGoal;
+                    jr = cur.row + d[0] * dist;
+                    jc = cur.col + d[1] * dist;
+                } else {
+                    int nr = cur.row + d[0];
+                    int nc = cur.col + d[1];
+                    if (!maze.isOpen(nr, nc))
+                        continue; // immediate neighbor blocked or out
+
+                    Node jumpPoint = jump(maze, nr, nc, d[0], d[1], tr, tc);
+                    if (jumpPoint == null)
+                        continue;
+
+                    jr = jumpPoint.row;
+                    jc = jumpPoint.col;
                 }
 
                 int stepCost = Math.abs(jr - cur.row) + Math.abs(jc - cur.col); // Manhattan steps
                 int tentativeG = cur.g + stepCost;
-                if (tentativeG < gScore[jr][jc]) {
-                    gScore[jr][jc] = tentativeG;
+                int jump = jr * cols + jc;
+                if (listener != null)
+                    listener.jumpPoint(jump);
+                if (!ws.isClosed(jump) && tentativeG < ws.g(jump)) {
+                    ws.set(jump, tentativeG, current);
+                    // A fresh node per improvement: a queued one is never
+                    // modified, the old entry is skipped as stale
+                    Node jp = new Node(jr, jc, d[0], d[1]);
                     jp.parent = cur;
-                    jp.dx = d[0];
-                    jp.dy = d[1];
                     jp.g = tentativeG;
                     jp.h = manhattan(jr, jc, tr, tc);
                     jp.f = jp.g + jp.h;
-                    open.add(jp);
+                    open.push(jp);
+                    stats.pushed(open.size());
+                    if (listener != null)
+                        listener.pushed(jump);
                 }
             }
         }
 
         long t1 = System.nanoTime();
-        List<Node> path = Collections.emptyList();
+        CellPath path = CellPath.EMPTY;
         if (goalNode != null) {
             path = reconstructPath(goalNode);
         }
 
-        return new Result(path, t1 - t0, explored);
+        return stats.copyTo(new Result(path, t1 - t0, explored));
     }
 
     // The jump routine
-    private Node jump(boolean[][] maze, int r, int c, int dx, int dy, int tr, int tc) {
+    private Node jump(MazeGrid maze, int r, int c, int dx, int dy, int tr, int tc) {
         int x = r;
         int y = c;
         while (true) {
-            if (!inBounds(x, y) || !maze[x][y])
+            if (!maze.isOpen(x, y))
                 return null;
             if (x == tr && y == tc)
                 return new Node(x, y, dx, dy);
@@ -142,7 +239,7 @@ public class JPS2 {
             for (int[] d : DIRS) {
                 int nx = x + d[0];
                 int ny = y + d[1];
-                if (inBounds(nx, ny) && maze[nx][ny]) {
+                if (maze.isOpen(nx, ny)) {
                     passableDirs.add(d);
                 }
             }
@@ -165,30 +262,18 @@ public class JPS2 {
         }
     }
 
-    private boolean inBounds(int r, int c) {
-        return r >= 0 && r < rows && c >= 0 && c < cols;
-    }
-
     private int manhattan(int r1, int c1, int r2, int c2) {
         return Math.abs(r1 - r2) + Math.abs(c1 - c2);
     }
 
-    private List<Node> reconstructPath(Node goal) {
-        LinkedList<Node> path = new LinkedList<>();
-        Node cur = goal;
-        while (cur.parent != null) {
-            int dx = Integer.signum(cur.row - cur.parent.row);
-            int dy = Integer.signum(cur.col - cur.parent.col);
-            int r = cur.row;
-            int c = cur.col;
-            while (r != cur.parent.row || c != cur.parent.col) {
-                path.addFirst(new Node(r, c));
-                r -= dx;
-                c -= dy;
-            }
-            cur = cur.parent;
-        }
-        path.addFirst(cur); // add start
-        return path;
+    /**
+     * The jump points become the path's waypoints as they are; the corridor
+     * cells between them are never materialised.
+     */
+    private CellPath reconstructPath(Node goal) {
+        CellPath.Builder path = new CellPath.Builder(cols);
+        for (Node cur = goal; cur != null; cur = cur.parent)
+            path.add(cur.row * cols + cur.col);
+        return path.buildReversed();
     }
 }
@@ -0,0 +1,328 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * 8-connected Jump Point Search: straight steps cost 1 and diagonal steps
+ * sqrt(2). This is the grown-up version of JPS:
+ * - jumping is iterative (a diagonal jump loops and runs straight jumps as
+ * inner loops), so long corridors cannot overflow the stack,
+ * - state is primitive and indexed by row * cols + col: an IntHeap open list,
+ * int[] g-scores and parents and a bitset closed set, reused between calls,
+ * - successors are generated into a fixed int buffer instead of lists,
+ * - the heuristic is the octile distance and costs are exact per step.
+ *
+ * Costs are fixed point: a straight step is STRAIGHT (1000) and a diagonal
+ * step DIAGONAL (1414). The returned path's cost() is the path cost in these
+ * units.
+ *
+ * Whether a diagonal step may pass a blocked corner is set by CornerCutting;
+ * the pruning and forced-neighbour rules differ per policy.
+ */
+public class JPS8 implements Pathfinder {
+
+    public static final int STRAIGHT = 1000;
+    public static final int DIAGONAL = 1414;
+
+    /**
+     * When a diagonal step from (r, c) to (r + dr, c + dc) is allowed, given
+     * the two orthogonal cells it passes, (r + dr, c) and (r, c + dc).
+     */
+    public enum CornerCutting {
+        /** Always, even between two walls. */
+        ALWAYS,
+        /** If at least one of the two cells is open. */
+        IF_ONE_FREE,
+        /** Only if both cells are open (no corner cutting). */
+        NEVER
+    }
+
+    private static final int[] DR = { -1, 1, 0, 0, -1, -1, 1, 1 };
+    private static final int[] DC = { 0, 0, -1, 1, -1, 1, -1, 1 };
+
+    private final CornerCutting cornerCutting;
+
+    // Reusable buffers, grown to the largest maze seen
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private long[] closed = new long[0];
+    private final IntHeap open = new IntHeap();
+    private final int[] successors = new int[16]; // (dr, dc) pairs
+
+    private MazeGrid maze;
+    private int cols, goal;
+
+    public JPS8() {
+        this(CornerCutting.NEVER);
+    }
+
+    public JPS8(CornerCutting cornerCutting) {
+        this.cornerCutting = cornerCutting;
+    }
+
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int rows = maze.rows();
+        cols = maze.cols();
+        int cells = rows * cols;
+        int start = startRow * cols + startCol;
+        goal = endRow * cols + endCol;
+        this.maze = maze;
+
+        if (!maze.isOpen(startRow, startCol) || !maze.isOpen(endRow, endCol))
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
+
+        if (gScore.length < cells) {
+            gScore = new int[cells];
+            parent = new int[cells];
+            closed = new long[(cells + 63) >>> 6];
+        } else {
+            Arrays.fill(closed, 0, (cells + 63) >>> 6, 0L);
+        }
+        Arrays.fill(gScore, 0, cells, Integer.MAX_VALUE);
+        open.clear();
+
+        gScore[start] = 0;
+        parent[start] = -1;
+        open.push(octile(start, goal), start);
+        int explored = 0;
+
+        while (!open.isEmpty()) {
+            int current = open.pop();
+
+            if ((closed[current >>> 6] & (1L << current)) != 0)
+                continue;
+
+            if (current == goal) {
+                CellPath path = reconstructPath(current);
+                this.maze = null;
+                return new Result(path, System.nanoTime() - startTime, explored);
+            }
+
+            closed[current >>> 6] |= 1L << current;
+            explored++;
+
+            int r = current / cols, c = current % cols;
+            int count = findSuccessors(r, c, parent[current]);
+            for (int i = 0; i < count; i += 2) {
+                int dr = successors[i], dc = successors[i + 1];
+                int jumpPoint = dr != 0 && dc != 0 ? jumpDiagonal(r + dr, c + dc, dr, dc)
+                        : jumpStraight(r + dr, c + dc, dr, dc);
+                if (jumpPoint < 0 || (closed[jumpPoint >>> 6] & (1L << jumpPoint)) != 0)
+                    continue;
+                int g = gScore[current] + octile(current, jumpPoint);
+                if (g < gScore[jumpPoint]) {
+                    gScore[jumpPoint] = g;
+                    parent[jumpPoint] = current;
+                    open.push(g + octile(jumpPoint, goal), jumpPoint);
+                }
+            }
+        }
+
+        this.maze = null;
+        // No path found
+        return new Result(CellPath.EMPTY, System.nanoTime() - startTime, explored);
+    }
+
+    private boolean isOpen(int r, int c) {
+        return maze.isOpen(r, c);
+    }
+
+    /**
+     * @return true if the diagonal step from (r, c) by (dr, dc) is allowed
+     */
+    private boolean canMoveDiagonal(int r, int c, int dr, int dc) {
+        if (!isOpen(r + dr, c + dc))
+            return false;
+        switch (cornerCutting) {
+            case ALWAYS:
+                return true;
+            case IF_ONE_FREE:
+                return isOpen(r + dr, c) || isOpen(r, c + dc);
+            default:
+                return isOpen(r + dr, c) && isOpen(r, c + dc);
+        }
+    }
+
+    private int add(int count, int dr, int dc) {
+        successors[count] = dr;
+        successors[count + 1] = dc;
+        return count + 2;
+    }
+
+    /**
+     * Writes the directions to jump in from (r, c) into successors: all legal
+     * moves for the start, otherwise the natural and forced neighbours for the
+     * direction we arrived from.
+     *
+     * @return number of ints written (two per direction)
+     */
+    private int findSuccessors(int r, int c, int from) {
+        int count = 0;
+        if (from < 0) {
+            for (int i = 0; i < 8; i++) {
+                boolean legal = DR[i] != 0 && DC[i] != 0 ? canMoveDiagonal(r, c, DR[i], DC[i])
+                        : isOpen(r + DR[i], c + DC[i]);
+                if (legal)
+                    count = add(count, DR[i], DC[i]);
+            }
+            return count;
+        }
+        int dr = Integer.signum(r - from / cols);
+        int dc = Integer.signum(c - from % cols);
+
+        switch (cornerCutting) {
+            case ALWAYS:
+                if (dr != 0 && dc != 0) {
+                    if (isOpen(r + dr, c)) count = add(count, dr, 0);
+                    if (isOpen(r, c + dc)) count = add(count, 0, dc);
+                    if (isOpen(r + dr, c + dc)) count = add(count, dr, dc);
+                    if (!isOpen(r - dr, c) && isOpen(r - dr, c + dc)) count = add(count, -dr, dc);
+                    if (!isOpen(r, c - dc) && isOpen(r + dr, c - dc)) count = add(count, dr, -dc);
+                } else if (dr != 0) {
+                    if (isOpen(r + dr, c)) count = add(count, dr, 0);
+                    if (!isOpen(r, c + 1) && isOpen(r + dr, c + 1)) count = add(count, dr, 1);
+                    if (!isOpen(r, c - 1) && isOpen(r + dr, c - 1)) count = add(count, dr, -1);
+                } else {
+                    if (isOpen(r, c + dc)) count = add(count, 0, dc);
+                    if (!isOpen(r + 1, c) && isOpen(r + 1, c + dc)) count = add(count, 1, dc);
+                    if (!isOpen(r - 1, c) && isOpen(r - 1, c + dc)) count = add(count, -1, dc);
+                }
+                break;
+            case IF_ONE_FREE:
+                if (dr != 0 && dc != 0) {
+                    boolean vertical = isOpen(r + dr, c), horizontal = isOpen(r, c + dc);
+                    if (vertical) count = add(count, dr, 0);
+                    if (horizontal) count = add(count, 0, dc);
+                    if ((vertical || horizontal) && isOpen(r + dr, c + dc)) count = add(count, dr, dc);
+                    if (!isOpen(r - dr, c) && horizontal && isOpen(r - dr, c + dc)) count = add(count, -dr, dc);
+                    if (!isOpen(r, c - dc) && vertical && isOpen(r + dr, c - dc)) count = add(count, dr, -dc);
+                } else if (dr != 0) {
+                    if (isOpen(r + dr, c)) {
+                        count = add(count, dr, 0);
+                        if (!isOpen(r, c + 1) && isOpen(r + dr, c + 1)) count = add(count, dr, 1);
+                        if (!isOpen(r, c - 1) && isOpen(r + dr, c - 1)) count = add(count, dr, -1);
+                    }
+                } else {
+                    if (isOpen(r, c + dc)) {
+                        count = add(count, 0, dc);
+                        if (!isOpen(r + 1, c) && isOpen(r + 1, c + dc)) count = add(count, 1, dc);
+                        if (!isOpen(r - 1, c) && isOpen(r - 1, c + dc)) count = add(count, -1, dc);
+                    }
+                }
+                break;
+            default: // NEVER
+                if (dr != 0 && dc != 0) {
+                    boolean vertical = isOpen(r + dr, c), horizontal = isOpen(r, c + dc);
+                    if (vertical) count = add(count, dr, 0);
+                    if (horizontal) count = add(count, 0, dc);
+                    if (vertical && horizontal && isOpen(r + dr, c + dc)) count = add(count, dr, dc);
+                } else if (dr != 0) {
+                    boolean next = isOpen(r + dr, c), right = isOpen(r, c + 1), left = isOpen(r, c - 1);
+                    if (next) {
+                        count = add(count, dr, 0);
+                        if (right && isOpen(r + dr, c + 1)) count = add(count, dr, 1);
+                        if (left && isOpen(r + dr, c - 1)) count = add(count, dr, -1);
+                    }
+                    if (right) count = add(count, 0, 1);
+                    if (left) count = add(count, 0, -1);
+                } else {
+                    boolean next = isOpen(r, c + dc), down = isOpen(r + 1, c), up = isOpen(r - 1, c);
+                    if (next) {
+                        count = add(count, 0, dc);
+                        if (down && isOpen(r + 1, c + dc)) count = add(count, 1, dc);
+                        if (up && isOpen(r - 1, c + dc)) count = add(count, -1, dc);
+                    }
+                    if (down) count = add(count, 1, 0);
+                    if (up) count = add(count, -1, 0);
+                }
+                break;
+        }
+        return count;
+    }
+
+    /**
+     * Jumps from (r, c), entered moving by (dr, dc) with one of them zero.
+     *
+     * @return the jump point cell, or -1 if the jump runs into a wall
+     */
+    private int jumpStraight(int r, int c, int dr, int dc) {
+        while (true) {
+            if (!isOpen(r, c))
+                return -1;
+            int cell = r * cols + c;
+            if (cell == goal || hasForcedStraight(r, c, dr, dc))
+                return cell;
+            r += dr;
+            c += dc;
+        }
+    }
+
+    private boolean hasForcedStraight(int r, int c, int dr, int dc) {
+        if (cornerCutting == CornerCutting.NEVER) {
+            // a side opens up that was closed one step back
+            if (dc != 0)
+                return (isOpen(r - 1, c) && !isOpen(r - 1, c - dc)) || (isOpen(r + 1, c) && !isOpen(r + 1, c - dc));
+            return (isOpen(r, c - 1) && !isOpen(r - dr, c - 1)) || (isOpen(r, c + 1) && !isOpen(r - dr, c + 1));
+        }
+        // a wall beside us with an open cell diagonally ahead
+        if (dc != 0)
+            return (isOpen(r + 1, c + dc) && !isOpen(r + 1, c)) || (isOpen(r - 1, c + dc) && !isOpen(r - 1, c));
+        return (isOpen(r + dr, c + 1) && !isOpen(r, c + 1)) || (isOpen(r + dr, c - 1) && !isOpen(r, c - 1));
+    }
+
+    /**
+     * Jumps from (r, c), entered moving diagonally by (dr, dc). Each diagonal
+     * step also runs the two straight jumps it could turn into.
+     *
+     * @return the jump point cell, or -1 if the jump runs into a wall
+     */
+    private int jumpDiagonal(int r, int c, int dr, int dc) {
+        while (true) {
+            if (!isOpen(r, c))
+                return -1;
+            int cell = r * cols + c;
+            if (cell == goal)
+                return cell;
+            if (cornerCutting != CornerCutting.NEVER
+                    && ((isOpen(r - dr, c + dc) && !isOpen(r - dr, c)) || (isOpen(r + dr, c - dc) && !isOpen(r, c - dc))))
+                return cell;
+            if (jumpStraight(r + dr, c, dr, 0) >= 0 || jumpStraight(r, c + dc, 0, dc) >= 0)
+                return cell;
+            if (!canContinueDiagonal(r, c, dr, dc))
+                return -1;
+            r += dr;
+            c += dc;
+        }
+    }
+
+    private boolean canContinueDiagonal(int r, int c, int dr, int dc) {
+        switch (cornerCutting) {
+            case ALWAYS:
+                return true;
+            case IF_ONE_FREE:
+                return isOpen(r + dr, c) || isOpen(r, c + dc);
+            default:
+                return isOpen(r + dr, c) && isOpen(r, c + dc);
+        }
+    }
+
+    private int octile(int a, int b) {
+        int dr = Math.abs(a / cols - b / cols);
+        int dc = Math.abs(a % cols - b % cols);
+        return DIAGONAL * Math.min(dr, dc) + STRAIGHT * Math.abs(dr - dc);
+    }
+
+    /**
+     * Rebuilds the path from the jump points, which are its waypoints (each
+     * leg is a straight or diagonal line). The cost is the scaled g of end.
+     */
+    private CellPath reconstructPath(int end) {
+        CellPath.Builder path = new CellPath.Builder(cols);
+        for (int cell = end; cell != -1; cell = parent[cell])
+            path.add(cell);
+        return path.buildReversed(gScore[end]);
+    }
+}
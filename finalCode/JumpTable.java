@@ -0,0 +1,110 @@
+package finalCode;
+
+/**
+ * JPS+ style preprocessing for JPS2. For every open cell and each of the 4
+ * directions it stores how many steps JPS2.jump would travel from that cell
+ * before stopping: at the first cell that is not a straight corridor, or 0 if
+ * the neighbour in that direction is a wall. With the table a query generates
+ * each successor in O(1) instead of rescanning the corridor.
+ *
+ * The goal is not part of the table (it depends on the query); JPS2 checks
+ * whether the goal lies on the jumped segment, which is also O(1).
+ *
+ * Distances are stored as char (unsigned 16-bit) when the maze is narrower
+ * than 65536 cells in both directions, int otherwise. The table describes the
+ * maze as it was when built and must be rebuilt if walls change.
+ */
+public class JumpTable {
+
+    // Same order as JPS2.DIRS: up, down, left, right
+    static final int UP = 0, DOWN = 1, LEFT = 2, RIGHT = 3;
+
+    private final int rows, cols, cells;
+    private final char[] small;
+    private final int[] large;
+
+    private JumpTable(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = rows * cols;
+        if (rows < 65536 && cols < 65536) {
+            small = new char[4 * cells];
+            large = null;
+        } else {
+            small = null;
+            large = new int[4 * cells];
+        }
+    }
+
+    public static JumpTable build(MazeGrid maze) {
+        int rows = maze.rows();
+        int cols = maze.cols();
+        JumpTable table = new JumpTable(rows, cols);
+
+        // corridor[cell]: open with exactly two opposite open neighbours
+        boolean[] corridor = new boolean[rows * cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (!maze.isOpen(r, c))
+                    continue;
+                boolean up = maze.isOpen(r - 1, c), down = maze.isOpen(r + 1, c);
+                boolean left = maze.isOpen(r, c - 1), right = maze.isOpen(r, c + 1);
+                corridor[r * cols + c] = (up && down && !left && !right) || (left && right && !up && !down);
+            }
+        }
+
+        // dist(c, d) = 0 if c + d is blocked, 1 if c + d is a jump point,
+        // else 1 + dist(c + d, d); sweep against each direction
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                table.fill(maze, corridor, r, c, UP, r - 1, c);
+                table.fill(maze, corridor, r, c, LEFT, r, c - 1);
+            }
+        }
+        for (int r = rows - 1; r >= 0; r--) {
+            for (int c = cols - 1; c >= 0; c--) {
+                table.fill(maze, corridor, r, c, DOWN, r + 1, c);
+                table.fill(maze, corridor, r, c, RIGHT, r, c + 1);
+            }
+        }
+        return table;
+    }
+
+    private void fill(MazeGrid maze, boolean[] corridor, int r, int c, int dir, int nr, int nc) {
+        if (!maze.isOpen(r, c) || !maze.isOpen(nr, nc))
+            return;
+        int n = nr * cols + nc;
+        set(dir, r * cols + c, corridor[n] ? 1 + distance(dir, n) : 1);
+    }
+
+    private void set(int dir, int cell, int value) {
+        if (small != null)
+            small[dir * cells + cell] = (char) value;
+        else
+            large[dir * cells + cell] = value;
+    }
+
+    /**
+     * @param dir  UP, DOWN, LEFT or RIGHT
+     * @param cell row * cols + col of an open cell
+     * @return steps to the next jump point in that direction, 0 if blocked
+     */
+    public int distance(int dir, int cell) {
+        return small != null ? small[dir * cells + cell] : large[dir * cells + cell];
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return approximate heap footprint of the table in bytes
+     */
+    public long sizeInBytes() {
+        return small != null ? 2L * small.length : 4L * large.length;
+    }
+}
@@ -0,0 +1,222 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * A* over a JunctionGraph: every expansion crosses a whole corridor, so the
+ * search only touches junctions and dead ends. The Manhattan heuristic is
+ * still admissible because a corridor is never shorter than the Manhattan
+ * distance between its ends.
+ *
+ * Start and goal may lie in the middle of a corridor. They are handled as two
+ * virtual nodes (ids nodeCount and nodeCount + 1) attached to the ends of
+ * their corridor, so the graph itself is never modified by a query.
+ *
+ * The final path is expanded back into the cell-by-cell Node list Result
+ * expects, identical in length to the one AStar finds.
+ */
+public class JunctionAStar implements Pathfinder {
+
+    // Reusable buffers, grown to the largest graph seen
+    private int[] gScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] via = new int[0]; // edge used to reach the node, ~e if against its direction
+    private long[] closed = new long[0];
+    private final IntHeap open = new IntHeap();
+    private final SearchStats stats = new SearchStats();
+
+    // Set by prepare: the graph of preparedMaze, reused by findPath on it
+    private MazeGrid preparedMaze;
+    private JunctionGraph preparedGraph;
+
+    /**
+     * Contracts the maze and solves between the two cells. The execution time
+     * includes building the graph unless prepare was called with this maze;
+     * use prepare (or the JunctionGraph overload) to time queries only.
+     */
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        if (maze == preparedMaze)
+            return findPath(preparedGraph, startRow, startCol, endRow, endCol);
+        long startTime = System.nanoTime();
+        JunctionGraph graph = JunctionGraph.build(maze);
+        Result result = findPath(graph, startRow, startCol, endRow, endCol);
+        result.executionTime = System.nanoTime() - startTime;
+        return result;
+    }
+
+    /**
+     * Builds the junction graph of maze once for a batch of queries on it.
+     */
+    @Override
+    public Object preprocess(MazeGrid maze) {
+        return JunctionGraph.build(maze);
+    }
+
+    @Override
+    public void prepare(MazeGrid maze, Object preprocessed) {
+        if (!(preprocessed instanceof JunctionGraph))
+            throw new IllegalArgumentException("not built by JunctionAStar.preprocess: " + preprocessed);
+        preparedGraph = (JunctionGraph) preprocessed;
+        preparedMaze = maze;
+    }
+
+    /**
+     * @param graph graph built from the maze (and kept up to date with
+     *              JunctionGraph.openCell if walls were removed since)
+     * @return Result with the cell path, query time (ns) and the number of
+     *         graph nodes expanded, or an empty path if start and goal are not
+     *         connected
+     */
+    public Result findPath(JunctionGraph graph, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        int cols = graph.cols;
+        int n = graph.nodeCount;
+        int S = n, G = n + 1;
+        int startCell = startRow * cols + startCol;
+        int endCell = endRow * cols + endCol;
+
+        stats.reset();
+        if (!onGraph(graph, startCell) || !onGraph(graph, endCell))
+            return stats.copyTo(new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0));
+
+        if (gScore.length < n + 2) {
+            gScore = new int[n + 2];
+            parent = new int[n + 2];
+            via = new int[n + 2];
+            closed = new long[(n + 2 + 63) >>> 6];
+        } else {
+            Arrays.fill(closed, 0, (n + 2 + 63) >>> 6, 0L);
+        }
+        Arrays.fill(gScore, 0, n + 2, Integer.MAX_VALUE);
+        open.clear();
+
+        // Goal: either a node, or a position on a corridor
+        int goalNode = graph.nodeId[endCell];
+        int goalEdge = goalNode >= 0 ? -1 : graph.cellEdge[endCell];
+        int goalPos = goalNode >= 0 ? 0 : graph.cellPos[endCell];
+        if (goalNode < 0)
+            goalNode = G;
+
+        // Start: either a node, or a position on a corridor
+        int startNode = graph.nodeId[startCell];
+        gScore[S] = 0;
+        parent[S] = -1;
+        if (startNode >= 0) {
+            relax(graph, startNode, 0, -1, 0, endRow, endCol);
+        } else {
+            int e = graph.cellEdge[startCell];
+            int p = graph.cellPos[startCell];
+            relax(graph, graph.edgeFrom[e], p + 1, S, ~e, endRow, endCol);
+            relax(graph, graph.edgeTo[e], graph.edgeLength[e] - 1 - p, S, e, endRow, endCol);
+            if (e == goalEdge)
+                relax(graph, G, Math.abs(p - goalPos), S, p <= goalPos ? e : ~e, endRow, endCol);
+        }
+
+        int explored = 0;
+        while (!open.isEmpty()) {
+            int current = open.pop();
+            stats.pops++;
+
+            if ((closed[current >>> 6] & (1L << current)) != 0) {
+                stats.staleSkips++;
+                continue;
+            }
+
+            if (current == goalNode) {
+                CellPath path = expand(graph, goalNode, startCell, endCell);
+                return stats.copyTo(new Result(path, System.nanoTime() - startTime, explored));
+            }
+
+            closed[current >>> 6] |= 1L << current;
+            explored++;
+
+            int g = gScore[current];
+            // nodes added by openCell after the build have no CSR entries
+            int csrStart = 0, csrEnd = 0;
+            if (current < graph.adjOffset.length - 1) {
+                csrStart = graph.adjOffset[current];
+                csrEnd = graph.adjOffset[current + 1];
+            }
+            for (int i = csrStart; i < csrEnd; i++) {
+                int e = graph.adjEdge[i];
+                if (!graph.edgeDead[e < 0 ? ~e : e])
+                    successor(graph, current, g, graph.adjTarget[i], e, goalEdge, goalPos, endRow, endCol);
+            }
+            for (int i = graph.extraHead[current]; i != -1; i = graph.extraNext[i]) {
+                int e = graph.extraEdge[i];
+                if (!graph.edgeDead[e < 0 ? ~e : e])
+                    successor(graph, current, g, graph.extraTarget[i], e, goalEdge, goalPos, endRow, endCol);
+            }
+        }
+
+        // No path found
+        return stats.copyTo(new Result(CellPath.EMPTY, System.nanoTime() - startTime, explored));
+    }
+
+    private static boolean onGraph(JunctionGraph graph, int cell) {
+        return cell >= 0 && cell < graph.nodeId.length && (graph.nodeId[cell] >= 0 || graph.cellEdge[cell] >= 0);
+    }
+
+    private void successor(JunctionGraph graph, int current, int g, int target, int e,
+            int goalEdge, int goalPos, int endRow, int endCol) {
+        int edge = e < 0 ? ~e : e;
+        relax(graph, target, g + graph.edgeLength[edge], current, e, endRow, endCol);
+        if (edge == goalEdge) {
+            // the goal sits on this corridor: stop part way along it
+            int toGoal = e >= 0 ? goalPos + 1 : graph.edgeLength[edge] - 1 - goalPos;
+            relax(graph, graph.nodeCount + 1, g + toGoal, current, e, endRow, endCol);
+        }
+    }
+
+    private void relax(JunctionGraph graph, int node, int g, int from, int e, int endRow, int endCol) {
+        if ((closed[node >>> 6] & (1L << node)) != 0 || g >= gScore[node])
+            return;
+        gScore[node] = g;
+        parent[node] = from;
+        via[node] = e;
+        int h = 0;
+        if (node < graph.nodeCount) {
+            int cell = graph.nodeCell[node];
+            h = Math.abs(cell / graph.cols - endRow) + Math.abs(cell % graph.cols - endCol);
+        }
+        open.push(g + h, node);
+        stats.pushed(open.size());
+    }
+
+    /**
+     * Walks the parent chain back from the goal and expands every hop into
+     * the corridor cells it crosses.
+     */
+    private CellPath expand(JunctionGraph graph, int goal, int startCell, int endCell) {
+        int S = graph.nodeCount;
+        int[] hops = new int[16];
+        int count = 0;
+        for (int node = goal; node != S && parent[node] != -1; node = parent[node]) {
+            if (count == hops.length)
+                hops = Arrays.copyOf(hops, count * 2);
+            hops[count++] = node;
+        }
+
+        int cols = graph.cols;
+        CellPath.Builder path = new CellPath.Builder(cols);
+        path.add(startCell);
+        for (int i = count - 1; i >= 0; i--) {
+            int node = hops[i];
+            int e = via[node];
+            boolean forward = e >= 0;
+            int edge = forward ? e : ~e;
+            int last = graph.edgeLength[edge] - 1;
+
+            // extended positions on the edge: -1 is edgeFrom, last is edgeTo
+            int from = parent[node] == S ? graph.cellPos[startCell] : (forward ? -1 : last);
+            int to = node == S + 1 ? graph.cellPos[endCell] : (forward ? last : -1);
+            int step = forward ? 1 : -1;
+            for (int pos = from + step; pos != to + step; pos += step) {
+                path.add(graph.cellAt(edge, pos));
+            }
+        }
+        return path.build();
+    }
+}
@@ -0,0 +1,285 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * The maze contracted to a weighted graph of junctions and dead ends.
+ *
+ * Every open cell with exactly two open neighbours is a corridor cell; every
+ * other open cell is a node. Each edge is a maximal corridor between two
+ * nodes: it carries the corridor length (steps from node to node) and the run
+ * of corridor cells in order from its from-node to its to-node, so a path
+ * over the graph can be expanded back into cells. Adjacency is stored in CSR
+ * int arrays; entries hold the edge id for the from -> to direction and ~id
+ * for to -> from.
+ *
+ * Corridor cells remember their edge and position in the run, which lets a
+ * search start or end in the middle of a corridor. A closed loop made only of
+ * corridor cells gets one of its cells promoted to a node.
+ *
+ * openCell() updates the graph in place when a wall is removed (as
+ * WilsonsSimple.imperfectifyMaze does): the new cell and its open
+ * neighbours become nodes, corridors through those neighbours are split, and
+ * the new edges go to a small overlay next to the CSR arrays. Nodes are never
+ * demoted back to corridor cells, so after many updates the graph is a little
+ * less contracted than a fresh build, but always correct.
+ */
+public class JunctionGraph {
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    final int rows, cols;
+
+    // nodes
+    int nodeCount;
+    int[] nodeCell = new int[16];
+    final int[] nodeId; // per cell, -1 if not a node
+
+    // edges
+    int edgeCount;
+    int[] edgeFrom = new int[16], edgeTo = new int[16], edgeLength = new int[16];
+    int[] runStart = new int[16], runEnd = new int[16]; // [start, end) in runCells
+    boolean[] edgeDead = new boolean[16];
+    int[] runCells = new int[16];
+    int runSize;
+
+    // corridor cells
+    final int[] cellEdge; // per cell, -1 if not a corridor cell
+    final int[] cellPos; // index in the edge's run, 0-based from the from-node
+
+    // CSR adjacency built once
+    int[] adjOffset, adjTarget, adjEdge;
+
+    // overlay adjacency added by openCell, as linked lists per node
+    int[] extraHead = new int[16];
+    int[] extraNext = new int[16], extraTarget = new int[16], extraEdge = new int[16];
+    int extraCount;
+
+    private JunctionGraph(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        nodeId = new int[rows * cols];
+        cellEdge = new int[rows * cols];
+        cellPos = new int[rows * cols];
+        Arrays.fill(nodeId, -1);
+        Arrays.fill(cellEdge, -1);
+        Arrays.fill(extraHead, -1);
+    }
+
+    public static JunctionGraph build(MazeGrid maze) {
+        int rows = maze.rows();
+        int cols = maze.cols();
+        JunctionGraph g = new JunctionGraph(rows, cols);
+
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (maze.isOpen(r, c) && degree(maze, r, c) != 2)
+                    g.addNode(r * cols + c);
+            }
+        }
+        int[] run = new int[16];
+        for (int u = 0; u < g.nodeCount; u++)
+            run = g.traceAll(maze, u, run);
+
+        // Loops of corridor cells only: promote one cell per loop
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if (g.nodeId[cell] < 0 && g.cellEdge[cell] < 0 && maze.isOpen(cell / cols, cell % cols)) {
+                run = g.traceAll(maze, g.addNode(cell), run);
+            }
+        }
+
+        g.buildAdjacency();
+        return g;
+    }
+
+    private static int degree(MazeGrid maze, int r, int c) {
+        int d = 0;
+        for (int i = 0; i < 4; i++)
+            if (maze.isOpen(r + DR[i], c + DC[i]))
+                d++;
+        return d;
+    }
+
+    /**
+     * Follows every corridor leaving node u and records each edge once.
+     */
+    private int[] traceAll(MazeGrid maze, int u, int[] run) {
+        int start = nodeCell[u];
+        int sr = start / cols, sc = start % cols;
+        for (int i = 0; i < 4; i++) {
+            int pr = sr, pc = sc;
+            int r = sr + DR[i], c = sc + DC[i];
+            if (!maze.isOpen(r, c))
+                continue;
+            int length = 0;
+            while (nodeId[r * cols + c] < 0) {
+                if (length == run.length)
+                    run = Arrays.copyOf(run, length * 2);
+                run[length++] = r * cols + c;
+                // the one open neighbour we did not come from
+                for (int j = 0; j < 4; j++) {
+                    int nr = r + DR[j], nc = c + DC[j];
+                    if ((nr != pr || nc != pc) && maze.isOpen(nr, nc)) {
+                        pr = r;
+                        pc = c;
+                        r = nr;
+                        c = nc;
+                        break;
+                    }
+                }
+            }
+            int v = nodeId[r * cols + c];
+            // Each corridor is traced from both ends; keep one of them
+            boolean keep = u < v || (u == v && length > 0 && run[0] < run[length - 1]);
+            if (keep)
+                addEdge(u, v, run, 0, length);
+        }
+        return run;
+    }
+
+    private int addNode(int cell) {
+        if (nodeCount == nodeCell.length) {
+            nodeCell = Arrays.copyOf(nodeCell, nodeCount * 2);
+            int old = extraHead.length;
+            extraHead = Arrays.copyOf(extraHead, nodeCount * 2);
+            Arrays.fill(extraHead, old, extraHead.length, -1);
+        }
+        nodeCell[nodeCount] = cell;
+        nodeId[cell] = nodeCount;
+        cellEdge[cell] = -1;
+        return nodeCount++;
+    }
+
+    /**
+     * Adds edge u -> v whose corridor cells are cells[from, to).
+     */
+    private int addEdge(int u, int v, int[] cells, int from, int to) {
+        if (edgeCount == edgeFrom.length) {
+            int n = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, n);
+            edgeTo = Arrays.copyOf(edgeTo, n);
+            edgeLength = Arrays.copyOf(edgeLength, n);
+            runStart = Arrays.copyOf(runStart, n);
+            runEnd = Arrays.copyOf(runEnd, n);
+            edgeDead = Arrays.copyOf(edgeDead, n);
+        }
+        int length = to - from;
+        if (runSize + length > runCells.length)
+            runCells = Arrays.copyOf(runCells, Math.max(runCells.length * 2, runSize + length));
+        int e = edgeCount++;
+        edgeFrom[e] = u;
+        edgeTo[e] = v;
+        edgeLength[e] = length + 1;
+        runStart[e] = runSize;
+        runEnd[e] = runSize + length;
+        for (int i = 0; i < length; i++) {
+            int cell = cells[from + i];
+            runCells[runSize + i] = cell;
+            cellEdge[cell] = e;
+            cellPos[cell] = i;
+        }
+        runSize += length;
+        return e;
+    }
+
+    private void buildAdjacency() {
+        adjOffset = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            adjOffset[edgeFrom[e] + 1]++;
+            adjOffset[edgeTo[e] + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++)
+            adjOffset[i + 1] += adjOffset[i];
+        adjTarget = new int[adjOffset[nodeCount]];
+        adjEdge = new int[adjOffset[nodeCount]];
+        int[] fill = Arrays.copyOf(adjOffset, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int u = edgeFrom[e], v = edgeTo[e];
+            adjTarget[fill[u]] = v;
+            adjEdge[fill[u]++] = e;
+            adjTarget[fill[v]] = u;
+            adjEdge[fill[v]++] = ~e;
+        }
+    }
+
+    private void addOverlay(int u, int v, int e) {
+        if (extraCount + 2 > extraNext.length) {
+            int n = Math.max(16, extraNext.length * 2);
+            extraNext = Arrays.copyOf(extraNext, n);
+            extraTarget = Arrays.copyOf(extraTarget, n);
+            extraEdge = Arrays.copyOf(extraEdge, n);
+        }
+        extraTarget[extraCount] = v;
+        extraEdge[extraCount] = e;
+        extraNext[extraCount] = extraHead[u];
+        extraHead[u] = extraCount++;
+        extraTarget[extraCount] = u;
+        extraEdge[extraCount] = ~e;
+        extraNext[extraCount] = extraHead[v];
+        extraHead[v] = extraCount++;
+    }
+
+    /**
+     * Updates the graph after cell (r, c) has been opened in maze, e.g. a wall
+     * removed by WilsonsSimple.imperfectifyMaze. Only the edges through the
+     * cell's neighbours are touched.
+     */
+    public void openCell(MazeGrid maze, int r, int c) {
+        int cell = r * cols + c;
+        if (nodeId[cell] >= 0 || cellEdge[cell] >= 0)
+            return; // already part of the graph
+        int w = addNode(cell);
+        for (int i = 0; i < 4; i++) {
+            int nr = r + DR[i], nc = c + DC[i];
+            if (!maze.isOpen(nr, nc))
+                continue;
+            int x = nodeId[nr * cols + nc];
+            if (x < 0)
+                x = splitAt(nr * cols + nc);
+            addOverlay(w, x, addEdge(w, x, runCells, 0, 0));
+        }
+    }
+
+    /**
+     * Turns corridor cell into a node, replacing its edge by the two halves.
+     */
+    private int splitAt(int cell) {
+        int e = cellEdge[cell];
+        int pos = cellPos[cell];
+        int u = edgeFrom[e], v = edgeTo[e];
+        int start = runStart[e], end = runEnd[e];
+        edgeDead[e] = true;
+        int x = addNode(cell);
+        addOverlay(u, x, addEdge(u, x, runCells, start, start + pos));
+        addOverlay(x, v, addEdge(x, v, runCells, start + pos + 1, end));
+        return x;
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return number of live edges
+     */
+    public int edgeCount() {
+        int live = 0;
+        for (int e = 0; e < edgeCount; e++)
+            if (!edgeDead[e])
+                live++;
+        return live;
+    }
+
+    /**
+     * Cell at an extended position along edge e: -1 is the from-node,
+     * length - 1 the to-node, anything between a corridor cell.
+     */
+    int cellAt(int e, int pos) {
+        if (pos < 0)
+            return nodeCell[edgeFrom[e]];
+        if (pos >= edgeLength[e] - 1)
+            return nodeCell[edgeTo[e]];
+        return runCells[runStart[e] + pos];
+    }
+}
@@ -0,0 +1,185 @@
+package finalCode;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Randomized Kruskal perfect maze generator that processes walls on all
+ * cores. Same layout as WilsonsSimple: cells on odd coordinates, start (1,1),
+ * end (height-2, width-2), plus the two border openings.
+ *
+ * The walls between neighbouring cells are shuffled once (seeded), then taken
+ * in that order in windows of WINDOW walls. Each window runs in parallel on a
+ * ConcurrentUnionFind using deterministic reservations:
+ * 1. every wall finds the roots of its two cells; walls whose cells are
+ * already joined are dropped, the others write their rank into both roots'
+ * reservation slots with an atomic min;
+ * 2. a wall that holds the reservation of one of its roots links that root
+ * to the other root (a CAS that checks the root is still one) and is opened;
+ * the rest go to the front of the next window.
+ * A wall only wins a root if no earlier pending wall touches it, so the set of
+ * opened walls is exactly what sequential Kruskal over the shuffled order
+ * opens: the maze depends only on the seed, not on thread timing.
+ *
+ * Note that random-order Kruskal is not a uniform spanning tree (Wilson's
+ * is); its mazes have more short dead ends.
+ */
+public class KruskalParallel implements MazeGenerator {
+
+    static final int WINDOW = 1 << 16;
+    private static final int FREE = Integer.MAX_VALUE;
+
+    private int WIDTH = 25;
+    private int HEIGHT = 25;
+
+    public KruskalParallel() {
+
+    }
+
+    public KruskalParallel(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    @Override
+    public void setSize(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    public MazeGrid generatePerfectMaze() {
+        return generatePerfectMaze(new SplittableRandom().nextLong());
+    }
+
+    @Override
+    public MazeGrid generatePerfectMaze(long seed) {
+        MazeGrid maze = new MazeGrid(HEIGHT, WIDTH);
+
+        // Cell lattice: cell (cx, cy) is grid cell (2 * cy + 1, 2 * cx + 1)
+        int cw = (WIDTH - 1) / 2;
+        int ch = (HEIGHT - 1) / 2;
+        int n = cw * ch;
+        if (n > 0) {
+            // Walls [0, horizontal) join cell (cx, cy), w = cy * (cw - 1) + cx,
+            // to its right; the rest, w - horizontal = cy * cw + cx, to the cell below
+            int horizontal = (cw - 1) * ch;
+            int walls = horizontal + cw * (ch - 1);
+            int[] order = new int[walls];
+            for (int i = 0; i < walls; i++)
+                order[i] = i;
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = walls - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+
+            boolean[] open = connect(order, n, cw, horizontal);
+
+            for (int cy = 0; cy < ch; cy++)
+                for (int cx = 0; cx < cw; cx++)
+                    maze.open(2 * cy + 1, 2 * cx + 1);
+            for (int w = 0; w < walls; w++) {
+                if (!open[w])
+                    continue;
+                if (w < horizontal)
+                    maze.open(2 * (w / (cw - 1)) + 1, 2 * (w % (cw - 1)) + 2);
+                else
+                    maze.open(2 * ((w - horizontal) / cw) + 2, 2 * ((w - horizontal) % cw) + 1);
+            }
+        }
+
+        // Ensure start and end points are accessible, same as WilsonsSimple
+        maze.open(1, 1);
+        maze.open(HEIGHT - 2, WIDTH - 2);
+        maze.open(0, 1); // Top entrance
+        maze.open(HEIGHT - 1, WIDTH - 2); // Bottom exit
+
+        return maze;
+    }
+
+    /**
+     * Runs the windowed parallel Kruskal over walls in the given order.
+     *
+     * @return open[w] is true for the walls of the spanning tree
+     */
+    private static boolean[] connect(int[] order, int n, int cw, int horizontal) {
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        AtomicIntegerArray reserved = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            reserved.set(i, FREE);
+        boolean[] open = new boolean[order.length];
+
+        // pending[0..count) holds the ranks (positions in order) still undecided
+        int[] pending = new int[Math.min(WINDOW, order.length)];
+        int[] rootA = new int[pending.length], rootB = new int[pending.length];
+        byte[] state = new byte[pending.length]; // 0 retry, 1 done
+        int count = 0, next = 0, trees = n;
+
+        while (count > 0 || next < order.length) {
+            while (count < pending.length && next < order.length)
+                pending[count++] = next++;
+            int size = count;
+
+            // Phase 1: find roots, drop cycle walls, reserve both roots
+            IntStream.range(0, size).parallel().forEach(i -> {
+                int rank = pending[i];
+                int w = order[rank];
+                int a = w < horizontal ? w / (cw - 1) * cw + w % (cw - 1) : w - horizontal;
+                int b = w < horizontal ? a + 1 : a + cw;
+                int ra = sets.find(a), rb = sets.find(b);
+                rootA[i] = ra;
+                rootB[i] = rb;
+                if (ra == rb) {
+                    state[i] = 1;
+                    return;
+                }
+                state[i] = 0;
+                writeMin(reserved, ra, rank);
+                writeMin(reserved, rb, rank);
+            });
+
+            // Phase 2: a wall holding a root's reservation links that root
+            IntStream.range(0, size).parallel().forEach(i -> {
+                if (state[i] != 0)
+                    return;
+                int rank = pending[i];
+                boolean linked;
+                if (reserved.get(rootA[i]) == rank)
+                    linked = sets.link(rootA[i], rootB[i]);
+                else if (reserved.get(rootB[i]) == rank)
+                    linked = sets.link(rootB[i], rootA[i]);
+                else
+                    return;
+                if (!linked) // only one wall holds a root's reservation
+                    throw new IllegalStateException("root " + rootA[i] + " or " + rootB[i] + " linked twice");
+                open[order[rank]] = true;
+                state[i] = 1;
+            });
+
+            // Phase 3: release reservations and keep the losers, in order
+            count = 0;
+            for (int i = 0; i < size; i++) {
+                reserved.set(rootA[i], FREE);
+                reserved.set(rootB[i], FREE);
+                if (state[i] == 0) {
+                    pending[count] = pending[i];
+                    count++;
+                } else if (rootA[i] != rootB[i]) {
+                    trees--;
+                }
+            }
+            if (trees == 1)
+                break; // spanning tree complete, every remaining wall closes a cycle
+        }
+        return open;
+    }
+
+    private static void writeMin(AtomicIntegerArray array, int i, int value) {
+        int current;
+        while (value < (current = array.get(i)) && !array.compareAndSet(i, current, value)) {
+        }
+    }
+}
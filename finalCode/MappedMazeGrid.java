@@ -0,0 +1,37 @@
+package finalCode;
+
+import java.nio.LongBuffer;
+
+/**
+ * A read-only MazeGrid view over a LongBuffer, typically a slice of a
+ * memory-mapped MazeCorpus file. Nothing is copied onto the heap; cells are
+ * read straight from the mapping. Use copy() to get a writable grid: every
+ * MazeGrid method that changes cells (open, close, set, clear, writeRow,
+ * copyFrom) ends in setWord and throws UnsupportedOperationException.
+ */
+class MappedMazeGrid extends MazeGrid {
+
+    private final LongBuffer data;
+
+    MappedMazeGrid(int rows, int cols, boolean wordAligned, LongBuffer data) {
+        super(rows, cols, wordAligned, null);
+        if (data.remaining() < wordCount(rows, cols, wordAligned))
+            throw new IllegalArgumentException("buffer too small for a " + rows + "x" + cols + " grid");
+        this.data = data;
+    }
+
+    @Override
+    long word(int i) {
+        return data.get(i);
+    }
+
+    @Override
+    void setWord(int i, long value) {
+        throw new UnsupportedOperationException("mapped maze grids are read-only, use copy()");
+    }
+
+    @Override
+    int wordLength() {
+        return wordCount(rows(), cols(), isWordAligned());
+    }
+}
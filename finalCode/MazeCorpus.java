@@ -0,0 +1,110 @@
+package finalCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read side of the binary maze corpus. Mazes are exposed as zero-copy,
+ * read-only MazeGrid views over the memory-mapped file, so the solvers can
+ * run on them directly without parsing or copying anything onto the heap.
+ *
+ * File layout (little-endian):
+ * header (32 bytes): int magic "MZCP", int version, int capacity, int count,
+ * 16 reserved bytes.
+ * index (8 * capacity bytes): long offset of each maze entry, for O(1) random
+ * access.
+ * entries, each 8-byte aligned: int rows, int cols, long seed, int startRow,
+ * int startCol, int goalRow, int goalCol, int flags (bit 0 = word-aligned
+ * rows), int reserved, then the MazeGrid words (1 bit per cell, row-major).
+ */
+public class MazeCorpus implements Closeable {
+
+    static final int MAGIC = 0x4D5A4350; // "MZCP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int ENTRY_HEADER_BYTES = 40;
+
+    /**
+     * One maze in the corpus with its metadata. grid is a read-only view, as
+     * returned by get.
+     */
+    public static class Entry {
+        public final int rows, cols;
+        public final long seed;
+        public final int startRow, startCol, goalRow, goalCol;
+        public final MazeGrid grid;
+
+        Entry(int rows, int cols, long seed, int startRow, int startCol, int goalRow, int goalCol, MazeGrid grid) {
+            this.rows = rows;
+            this.cols = cols;
+            this.seed = seed;
+            this.startRow = startRow;
+            this.startCol = startCol;
+            this.goalRow = goalRow;
+            this.goalCol = goalCol;
+            this.grid = grid;
+        }
+    }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+    private final int count;
+
+    public MazeCorpus(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION)
+            throw new IOException("not a maze corpus: " + path);
+        int capacity = header.getInt();
+        count = header.getInt();
+        index = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, 8L * capacity);
+        index.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return a read-only view of maze i. It is still a MazeGrid, but its
+     *         open, close, set, clear, writeRow and copyFrom throw
+     *         UnsupportedOperationException; use copy() for a grid that can
+     *         be changed
+     */
+    public MazeGrid get(int i) throws IOException {
+        return entry(i).grid;
+    }
+
+    public Entry entry(int i) throws IOException {
+        if (i < 0 || i >= count)
+            throw new IndexOutOfBoundsException("maze " + i + " of " + count);
+        long offset = index.getLong(8 * i);
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, offset, ENTRY_HEADER_BYTES);
+        head.order(ByteOrder.LITTLE_ENDIAN);
+        int rows = head.getInt();
+        int cols = head.getInt();
+        long seed = head.getLong();
+        int startRow = head.getInt();
+        int startCol = head.getInt();
+        int goalRow = head.getInt();
+        int goalCol = head.getInt();
+        boolean wordAligned = (head.getInt() & 1) != 0;
+
+        long bytes = 8L * MazeGrid.wordCount(rows, cols, wordAligned);
+        MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset + ENTRY_HEADER_BYTES, bytes);
+        MazeGrid grid = new MappedMazeGrid(rows, cols, wordAligned,
+                data.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+        return new Entry(rows, cols, seed, startRow, startCol, goalRow, goalCol, grid);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,224 @@
+package finalCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends mazes to a binary corpus file (see MazeCorpus for the layout),
+ * replacing the old text export of nested '0'/'1'/'S'/'E' braces. Each maze
+ * is written once through a FileChannel at 1 bit per cell, then its offset is
+ * recorded in the index block and the count in the header is bumped, so a
+ * crash mid-append never leaves a half-written maze in the index.
+ *
+ * Opening an existing corpus appends to it; its capacity is kept.
+ */
+public class MazeCorpusWriter implements Closeable {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int CHUNK_WORDS = 1 << 13; // 64 KiB per write
+
+    private final FileChannel channel;
+    private final int capacity;
+    private int count;
+    private final ByteBuffer small = ByteBuffer.allocate(MazeCorpus.ENTRY_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    public MazeCorpusWriter(Path path) throws IOException {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of mazes, only used when the file is new
+     */
+    public MazeCorpusWriter(Path path, int capacity) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            this.capacity = capacity;
+            this.count = 0;
+            ByteBuffer header = ByteBuffer.allocate(MazeCorpus.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MazeCorpus.MAGIC).putInt(MazeCorpus.VERSION).putInt(capacity).putInt(0);
+            header.rewind();
+            writeFully(header, 0);
+            // Zero-filled index block
+            writeFully(ByteBuffer.allocate(8 * capacity), MazeCorpus.HEADER_BYTES);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(MazeCorpus.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MazeCorpus.MAGIC || header.getInt() != MazeCorpus.VERSION)
+                throw new IOException("not a maze corpus: " + path);
+            this.capacity = header.getInt();
+            this.count = header.getInt();
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Appends a maze with the usual start (1,1) and goal (rows-2, cols-2).
+     *
+     * @return the index of the maze in the corpus
+     */
+    public int append(MazeGrid maze, long seed) throws IOException {
+        return append(maze, seed, 1, 1, maze.rows() - 2, maze.cols() - 2);
+    }
+
+    /**
+     * @return the index of the maze in the corpus
+     */
+    public int append(MazeGrid maze, long seed, int startRow, int startCol, int goalRow, int goalCol)
+            throws IOException {
+        long offset = beginEntry(maze.rows(), maze.cols(), maze.isWordAligned(), seed, startRow, startCol, goalRow,
+                goalCol);
+        long position = offset + MazeCorpus.ENTRY_HEADER_BYTES;
+        ByteBuffer chunk = ByteBuffer.allocate(8 * CHUNK_WORDS).order(ByteOrder.LITTLE_ENDIAN);
+        int words = maze.wordLength();
+        for (int i = 0; i < words; i += CHUNK_WORDS) {
+            chunk.clear();
+            int end = Math.min(words, i + CHUNK_WORDS);
+            for (int w = i; w < end; w++)
+                chunk.putLong(maze.word(w));
+            chunk.flip();
+            position += writeFully(chunk, position);
+        }
+        return commitEntry(offset);
+    }
+
+    /**
+     * Starts a maze that is written row by row (packed, 1 bit per cell), so it
+     * never has to exist in memory as a whole. Rows must be written in order
+     * and finish() called after the last one.
+     */
+    public RowStream appendRows(int rows, int cols, long seed, int startRow, int startCol, int goalRow, int goalCol)
+            throws IOException {
+        return new RowStream(rows, cols, beginEntry(rows, cols, false, seed, startRow, startCol, goalRow, goalCol));
+    }
+
+    /**
+     * Streaming writer for one packed maze entry.
+     */
+    public class RowStream implements RowSink {
+        private final int rows, cols;
+        private final long offset;
+        private long position;
+        private int nextRow;
+        private long acc; // pending bits, low accBits bits are valid
+        private int accBits;
+        private final ByteBuffer chunk = ByteBuffer.allocate(8 * CHUNK_WORDS).order(ByteOrder.LITTLE_ENDIAN);
+
+        RowStream(int rows, int cols, long offset) {
+            this.rows = rows;
+            this.cols = cols;
+            this.offset = offset;
+            this.position = offset + MazeCorpus.ENTRY_HEADER_BYTES;
+        }
+
+        @Override
+        public void writeRow(int r, long[] bits) throws IOException {
+            if (r != nextRow)
+                throw new IllegalStateException("expected row " + nextRow + ", got " + r);
+            nextRow++;
+            for (int c = 0; c < cols; c += 64) {
+                int n = Math.min(64, cols - c);
+                long value = bits[c >>> 6];
+                if (n < 64)
+                    value &= (1L << n) - 1;
+                acc |= value << accBits;
+                if (accBits + n >= 64) {
+                    emit(acc);
+                    acc = accBits == 0 ? 0L : value >>> (64 - accBits);
+                    accBits = accBits + n - 64;
+                } else {
+                    accBits += n;
+                }
+            }
+        }
+
+        private void emit(long word) throws IOException {
+            if (!chunk.hasRemaining())
+                flush();
+            chunk.putLong(word);
+        }
+
+        private void flush() throws IOException {
+            chunk.flip();
+            position += writeFully(chunk, position);
+            chunk.clear();
+        }
+
+        /**
+         * @return the index of the maze in the corpus
+         */
+        public int finish() throws IOException {
+            if (nextRow != rows)
+                throw new IllegalStateException("only " + nextRow + " of " + rows + " rows written");
+            if (accBits > 0)
+                emit(acc);
+            flush();
+            return commitEntry(offset);
+        }
+    }
+
+    /**
+     * Writes an entry header at the end of the file.
+     *
+     * @return the entry offset
+     */
+    long beginEntry(int rows, int cols, boolean wordAligned, long seed, int startRow, int startCol, int goalRow,
+            int goalCol) throws IOException {
+        if (count == capacity)
+            throw new IOException("maze corpus is full (" + capacity + " mazes)");
+        long offset = (channel.size() + 7) & ~7L;
+        small.clear();
+        small.putInt(rows).putInt(cols).putLong(seed)
+                .putInt(startRow).putInt(startCol).putInt(goalRow).putInt(goalCol)
+                .putInt(wordAligned ? 1 : 0).putInt(0);
+        small.flip();
+        writeFully(small, offset);
+        return offset;
+    }
+
+    /**
+     * Records an entry whose data is fully written in the index and header.
+     * The data is forced to disk before the index slot is written, and the
+     * slot before the count, so after a crash the count never covers an
+     * entry whose data or offset was lost.
+     *
+     * @return the index of the maze in the corpus
+     */
+    int commitEntry(long offset) throws IOException {
+        channel.force(false);
+        small.clear();
+        small.putLong(offset).flip();
+        writeFully(small, MazeCorpus.HEADER_BYTES + 8L * count);
+        channel.force(false);
+        count++;
+        small.clear();
+        small.putInt(count).flip();
+        writeFully(small, 12);
+        return count - 1;
+    }
+
+    FileChannel channel() {
+        return channel;
+    }
+
+    int writeFully(ByteBuffer buf, long position) throws IOException {
+        int written = 0;
+        while (buf.hasRemaining())
+            written += channel.write(buf, position + written);
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,17 @@
+package finalCode;
+
+/**
+ * A perfect maze generator. Cells sit on odd coordinates of the grid and the
+ * even coordinates between them are walls, as in WilsonsSimple, with start at
+ * (1,1) and end at (height-2, width-2).
+ */
+public interface MazeGenerator {
+
+    void setSize(int w, int h);
+
+    /**
+     * Generates a perfect maze from a fixed seed, so the same seed and size
+     * always produce the same maze.
+     */
+    MazeGrid generatePerfectMaze(long seed);
+}
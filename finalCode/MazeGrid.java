@@ -0,0 +1,294 @@
+package finalCode;
+
+/**
+ * A bit-packed maze grid. Each cell is stored as a single bit in a long[]
+ * (row-major), where a set bit means the cell is open (path) and a clear bit
+ * means it is a wall. This matches the boolean[][] convention used everywhere
+ * else (true = path, false = wall) but uses one bit per cell instead of one
+ * byte plus a row-array header per row.
+ *
+ * Rows are either tightly packed (a row may start in the middle of a word) or,
+ * if created with wordAligned = true, padded so that every row starts on a
+ * fresh 64-bit word. Word-aligned grids allow whole rows to be copied with
+ * System.arraycopy at the cost of up to 63 wasted bits per row.
+ */
+public class MazeGrid {
+
+    private final int rows, cols;
+    private final long stride; // bits per row
+    private final boolean wordAligned;
+    private final long[] words; // null for grids backed by a file (MappedMazeGrid)
+
+    public MazeGrid(int rows, int cols) {
+        this(rows, cols, false);
+    }
+
+    public MazeGrid(int rows, int cols, boolean wordAligned) {
+        if (rows <= 0 || cols <= 0)
+            throw new IllegalArgumentException("grid must be at least 1x1, got " + rows + "x" + cols);
+        this.rows = rows;
+        this.cols = cols;
+        this.wordAligned = wordAligned;
+        this.stride = wordAligned ? ((cols + 63L) >>> 6) << 6 : cols;
+        long totalWords = (stride * rows + 63) >>> 6;
+        if (totalWords > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("grid too large: " + rows + "x" + cols);
+        this.words = new long[(int) totalWords];
+    }
+
+    /**
+     * Wraps an existing word array laid out as by the other constructor, e.g.
+     * one read back from disk by MazeStore. Subclasses that provide their own
+     * storage pass null and override word, setWord and wordLength.
+     */
+    MazeGrid(int rows, int cols, boolean wordAligned, long[] words) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordAligned = wordAligned;
+        this.stride = wordAligned ? ((cols + 63L) >>> 6) << 6 : cols;
+        if (words != null && words.length != wordCount(rows, cols, wordAligned))
+            throw new IllegalArgumentException("expected " + wordCount(rows, cols, wordAligned) + " words, got " + words.length);
+        this.words = words;
+    }
+
+    /**
+     * @return the number of words needed for a grid of this shape
+     */
+    static int wordCount(int rows, int cols, boolean wordAligned) {
+        long stride = wordAligned ? ((cols + 63L) >>> 6) << 6 : cols;
+        return (int) ((stride * rows + 63) >>> 6);
+    }
+
+    /**
+     * @return the backing words (not a copy, unless the grid is file backed)
+     */
+    long[] words() {
+        if (words != null)
+            return words;
+        long[] copy = new long[wordLength()];
+        for (int i = 0; i < copy.length; i++)
+            copy[i] = word(i);
+        return copy;
+    }
+
+    // Storage access, overridden by MappedMazeGrid
+
+    long word(int i) {
+        return words[i];
+    }
+
+    void setWord(int i, long value) {
+        words[i] = value;
+    }
+
+    int wordLength() {
+        return words.length;
+    }
+
+    /**
+     * Creates a packed grid from a boolean[][] maze (true = path).
+     */
+    public static MazeGrid of(boolean[][] maze) {
+        MazeGrid grid = new MazeGrid(maze.length, maze[0].length);
+        for (int r = 0; r < maze.length; r++) {
+            for (int c = 0; c < maze[r].length; c++) {
+                if (maze[r][c])
+                    grid.open(r, c);
+            }
+        }
+        return grid;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public boolean isWordAligned() {
+        return wordAligned;
+    }
+
+    public boolean inBounds(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols;
+    }
+
+    private long bit(int r, int c) {
+        return r * stride + c;
+    }
+
+    /**
+     * @return true if (r, c) is inside the grid and open. Out-of-bounds cells
+     *         are treated as walls.
+     */
+    public boolean isOpen(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols)
+            return false;
+        long b = bit(r, c);
+        return (word((int) (b >>> 6)) & (1L << b)) != 0;
+    }
+
+    public void open(int r, int c) {
+        long b = bit(r, c);
+        int i = (int) (b >>> 6);
+        setWord(i, word(i) | 1L << b);
+    }
+
+    public void close(int r, int c) {
+        long b = bit(r, c);
+        int i = (int) (b >>> 6);
+        setWord(i, word(i) & ~(1L << b));
+    }
+
+    public void set(int r, int c, boolean open) {
+        if (open)
+            open(r, c);
+        else
+            close(r, c);
+    }
+
+    /**
+     * Closes every cell (all walls).
+     */
+    public void clear() {
+        for (int i = 0; i < wordLength(); i++)
+            setWord(i, 0L);
+    }
+
+    /**
+     * Copies row r into dst as a bitset where bit c (of word c / 64) is cell
+     * (r, c). dst must hold at least ceil(cols / 64) words.
+     */
+    public void readRow(int r, long[] dst) {
+        int rowWords = (cols + 63) >>> 6;
+        long start = bit(r, 0);
+        int base = (int) (start >>> 6);
+        if ((start & 63) == 0) {
+            if (words != null)
+                System.arraycopy(words, base, dst, 0, rowWords);
+            else
+                for (int i = 0; i < rowWords; i++)
+                    dst[i] = word(base + i);
+        } else {
+            int shift = (int) (start & 63);
+            int length = wordLength();
+            for (int i = 0; i < rowWords; i++) {
+                long lo = word(base + i) >>> shift;
+                long hi = base + i + 1 < length ? word(base + i + 1) << (64 - shift) : 0L;
+                dst[i] = lo | hi;
+            }
+        }
+        int tail = cols & 63;
+        if (tail != 0)
+            dst[rowWords - 1] &= (1L << tail) - 1;
+    }
+
+    /**
+     * Overwrites row r with the bitset in src (same layout as readRow).
+     */
+    public void writeRow(int r, long[] src) {
+        int rowWords = (cols + 63) >>> 6;
+        long start = bit(r, 0);
+        if ((start & 63) == 0) {
+            int base = (int) (start >>> 6);
+            for (int i = 0; i < rowWords; i++)
+                setWord(base + i, src[i]);
+            int tail = cols & 63;
+            if (tail != 0)
+                setWord(base + rowWords - 1, src[rowWords - 1] & (1L << tail) - 1);
+            return;
+        }
+        for (int c = 0; c < cols; c++) {
+            set(r, c, (src[c >>> 6] & (1L << c)) != 0);
+        }
+    }
+
+    /**
+     * @return the number of open cells in the grid.
+     */
+    public long openCount() {
+        long count = 0;
+        for (int i = 0; i < wordLength(); i++)
+            count += Long.bitCount(word(i));
+        return count;
+    }
+
+    /**
+     * @return a heap-backed, writable copy of this grid
+     */
+    public MazeGrid copy() {
+        MazeGrid grid = new MazeGrid(rows, cols, wordAligned);
+        if (words != null)
+            System.arraycopy(words, 0, grid.words, 0, words.length);
+        else
+            for (int i = 0; i < grid.words.length; i++)
+                grid.words[i] = word(i);
+        return grid;
+    }
+
+    /**
+     * Copies the open/wall state of another grid with the same dimensions into
+     * this one.
+     */
+    public void copyFrom(MazeGrid other) {
+        if (other.rows != rows || other.cols != cols)
+            throw new IllegalArgumentException("grid dimensions differ");
+        if (other.stride == stride) {
+            for (int i = 0; i < wordLength(); i++)
+                setWord(i, other.word(i));
+        } else {
+            for (int r = 0; r < rows; r++)
+                for (int c = 0; c < cols; c++)
+                    set(r, c, other.isOpen(r, c));
+        }
+    }
+
+    public boolean[][] toArray() {
+        boolean[][] maze = new boolean[rows][cols];
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                maze[r][c] = isOpen(r, c);
+        return maze;
+    }
+
+    /**
+     * @return approximate heap footprint of the cell data in bytes.
+     */
+    public long sizeInBytes() {
+        return 8L * wordLength();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MazeGrid)) return false;
+        MazeGrid other = (MazeGrid) o;
+        if (rows != other.rows || cols != other.cols) return false;
+        if (stride == other.stride) {
+            for (int i = 0; i < wordLength(); i++)
+                if (word(i) != other.word(i)) return false;
+            return true;
+        }
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (isOpen(r, c) != other.isOpen(r, c)) return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 31 * rows + cols;
+        for (int r = 0; r < rows; r++)
+            for (int c = 0; c < cols; c++)
+                if (isOpen(r, c))
+                    h = 31 * h + r * cols + c;
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "MazeGrid(" + rows + "x" + cols + ")";
+    }
+}
@@ -0,0 +1,147 @@
+package finalCode;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PrimitiveIterator;
+import javax.imageio.ImageIO;
+
+/**
+ * Headless rendering of a maze, optionally with a SearchTrace and a CellPath on
+ * top, to an indexed-color image that writePng saves as a PNG. Replaces
+ * printing the maze to the console for anything larger than a toy maze.
+ *
+ * One palette index per pixel is written straight into the image's byte[]
+ * raster, a maze row at a time from MazeGrid.readRow, so a 5001x5001 maze at
+ * one pixel per cell renders in a small fraction of a second (writing the
+ * PNG, which compresses 25 MB of pixels, is the slower part).
+ *
+ * Colors, later ones drawn over earlier ones: walls dark gray, open cells
+ * white, cells still on the open list when the search ended green, expanded
+ * cells from blue (expanded first) to red (expanded last), the path magenta,
+ * start yellow and goal cyan. Jump points get a black dot in their center
+ * when cells are at least 3 pixels wide.
+ */
+public final class MazeImage {
+
+    static final int WALL = 0, OPEN = 1, OPEN_LIST = 2, PATH = 3, JUMP_POINT = 4, START = 5, GOAL = 6;
+    // Palette indices FIRST_EXPANDED..255 hold the expansion order gradient
+    static final int FIRST_EXPANDED = 16;
+
+    private static final IndexColorModel PALETTE = palette();
+
+    private MazeImage() {
+    }
+
+    /**
+     * @return the maze alone, at cellSize pixels per cell
+     */
+    public static BufferedImage render(MazeGrid maze, int cellSize) {
+        return render(maze, null, null, cellSize);
+    }
+
+    /**
+     * @param trace    the search to overlay, or null
+     * @param path     the path to draw, or null (its first and last cells are
+     *                 drawn as start and goal)
+     * @param cellSize pixels per cell side, at least 1
+     */
+    public static BufferedImage render(MazeGrid maze, SearchTrace trace, CellPath path, int cellSize) {
+        if (cellSize < 1)
+            throw new IllegalArgumentException("cellSize must be at least 1, got " + cellSize);
+        int rows = maze.rows(), cols = maze.cols();
+        if ((long) rows * cols * cellSize * cellSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException(rows + "x" + cols + " maze is too large for cellSize " + cellSize);
+        if (trace != null && trace.cols != cols)
+            throw new IllegalArgumentException("trace was recorded on a different maze");
+
+        // One palette index per cell, first row by row, then the path on top
+        byte[] cells = cellSize == 1 ? null : new byte[rows * cols];
+        BufferedImage image = new BufferedImage(cols * cellSize, rows * cellSize, BufferedImage.TYPE_BYTE_INDEXED,
+                PALETTE);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        if (cells == null)
+            cells = pixels; // one pixel per cell: the raster is the cell array
+
+        long[] row = new long[(cols + 63) >>> 6];
+        int expansions = trace == null ? 0 : trace.expansions;
+        int gradient = 256 - FIRST_EXPANDED;
+        for (int r = 0; r < rows; r++) {
+            maze.readRow(r, row);
+            int base = r * cols;
+            for (int c = 0; c < cols; c++) {
+                int color = (row[c >>> 6] & (1L << c)) != 0 ? OPEN : WALL;
+                if (trace != null) {
+                    int order = trace.expandedAt[base + c];
+                    if (order != 0)
+                        color = FIRST_EXPANDED + (int) ((long) (order - 1) * gradient / expansions);
+                    else if (trace.isOpen(base + c))
+                        color = OPEN_LIST;
+                }
+                cells[base + c] = (byte) color;
+            }
+        }
+        if (path != null && !path.isEmpty()) {
+            for (PrimitiveIterator.OfInt it = path.cells(); it.hasNext();)
+                cells[it.nextInt()] = PATH;
+            cells[path.first()] = START;
+            cells[path.last()] = GOAL;
+        }
+        if (cellSize == 1)
+            return image;
+
+        // Each cell becomes a cellSize square: fill the first pixel row of a
+        // maze row, then copy it down
+        int width = cols * cellSize;
+        for (int r = 0; r < rows; r++) {
+            int top = r * cellSize * width;
+            for (int c = 0; c < cols; c++) {
+                byte color = cells[r * cols + c];
+                int left = top + c * cellSize;
+                for (int i = 0; i < cellSize; i++)
+                    pixels[left + i] = color;
+            }
+            for (int i = 1; i < cellSize; i++)
+                System.arraycopy(pixels, top, pixels, top + i * width, width);
+        }
+        if (trace != null && cellSize >= 3) {
+            int middle = cellSize / 2;
+            for (int cell = 0; cell < rows * cols; cell++)
+                if (trace.isJumpPoint(cell))
+                    pixels[((cell / cols) * cellSize + middle) * width + (cell % cols) * cellSize + middle] = JUMP_POINT;
+        }
+        return image;
+    }
+
+    /**
+     * Writes image as a PNG file, creating its parent directories.
+     */
+    public static void writePng(BufferedImage image, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        if (!ImageIO.write(image, "png", file.toFile()))
+            throw new IOException("no PNG writer available");
+    }
+
+    private static IndexColorModel palette() {
+        int[] rgb = new int[256];
+        rgb[WALL] = 0x1E1E1E;
+        rgb[OPEN] = 0xFFFFFF;
+        rgb[OPEN_LIST] = 0x2ECC40;
+        rgb[PATH] = 0xFF00FF;
+        rgb[JUMP_POINT] = 0x000000;
+        rgb[START] = 0xFFFF00;
+        rgb[GOAL] = 0x00FFFF;
+        // Hue from blue (2/3) down to red (0)
+        int steps = 256 - FIRST_EXPANDED;
+        for (int i = 0; i < steps; i++)
+            rgb[FIRST_EXPANDED + i] = Color.HSBtoRGB(2f / 3 * (1 - i / (steps - 1f)), 0.75f, 1f) & 0xFFFFFF;
+        return new IndexColorModel(8, 256, rgb, 0, false, -1, DataBuffer.TYPE_BYTE);
+    }
+}
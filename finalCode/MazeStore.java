@@ -0,0 +1,142 @@
+package finalCode;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An on-disk cache of generated mazes, keyed by (generator, width, height,
+ * seed, k). The first request for a key generates the maze and writes it to
+ * the store directory; later requests (in this or any later run) map the file
+ * and read the grid back instead of regenerating it. Since the key fully
+ * determines the maze, cached results are reproducible.
+ *
+ * File layout (little-endian), one maze per file:
+ * int magic "MAZE", int version, int rows, int cols, long seed, float k,
+ * int flags (bit 0 = word-aligned rows), then the MazeGrid words.
+ */
+public class MazeStore {
+
+    static final int MAGIC = 0x4D415A45; // "MAZE"
+    // Part of every file name too, so files written by another version of
+    // the layout or the wall shuffle are never picked up
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private final Path dir;
+
+    public MazeStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * @return the file a key is stored in
+     */
+    public Path pathFor(MazeGenerator generator, int width, int height, long seed, float k) {
+        return dir.resolve(generator.getClass().getSimpleName() + "-" + width + "x" + height
+                + "-" + Long.toHexString(seed) + "-k" + Integer.toHexString(Float.floatToIntBits(k))
+                + ".v" + VERSION + ".maze");
+    }
+
+    /**
+     * Returns the maze for a key, generating and storing it on a miss. k = 0
+     * is the perfect maze; for k > 0 the perfect maze is fetched (or generated)
+     * first and the walls are removed with an Imperfector seeded with
+     * Imperfector.wallSeed(seed).
+     */
+    public MazeGrid get(MazeGenerator generator, int width, int height, long seed, float k) throws IOException {
+        Path path = pathFor(generator, width, height, seed, k);
+        if (Files.exists(path))
+            return read(path);
+
+        MazeGrid maze;
+        if (k == 0) {
+            generator.setSize(width, height);
+            maze = generator.generatePerfectMaze(seed);
+        } else {
+            MazeGrid perfect = get(generator, width, height, seed, 0f);
+            maze = new Imperfector(perfect, Imperfector.wallSeed(seed)).imperfect(k);
+        }
+        write(path, maze, seed, k);
+        return maze;
+    }
+
+    /**
+     * Returns the imperfect variants for all kFactors of perfect, the maze
+     * stored for (generator, seed, k = 0) and already loaded by the caller,
+     * generating only the missing ones (from a single Imperfector, so they
+     * share one wall permutation exactly as Imperfector.variants does).
+     */
+    public MazeGrid[] getVariants(MazeGenerator generator, MazeGrid perfect, long seed, float[] kFactors)
+            throws IOException {
+        int width = perfect.cols(), height = perfect.rows();
+        MazeGrid[] variants = new MazeGrid[kFactors.length];
+        boolean missing = false;
+        for (int i = 0; i < kFactors.length; i++) {
+            Path path = pathFor(generator, width, height, seed, kFactors[i]);
+            if (Files.exists(path))
+                variants[i] = read(path);
+            else
+                missing = true;
+        }
+        if (missing) {
+            MazeGrid[] built = new Imperfector(perfect, Imperfector.wallSeed(seed)).variants(kFactors);
+            for (int i = 0; i < kFactors.length; i++) {
+                if (variants[i] == null) {
+                    variants[i] = built[i];
+                    write(pathFor(generator, width, height, seed, kFactors[i]), built[i], seed, kFactors[i]);
+                }
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Writes through a temporary file and an atomic rename, so concurrent
+     * runs never see a half-written maze.
+     */
+    static void write(Path path, MazeGrid maze, long seed, float k) throws IOException {
+        long[] words = maze.words();
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + 8 * words.length).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(maze.rows()).putInt(maze.cols())
+                .putLong(seed).putFloat(k).putInt(maze.isWordAligned() ? 1 : 0);
+        buf.asLongBuffer().put(words);
+        buf.rewind();
+
+        Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (buf.hasRemaining())
+                ch.write(buf);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static MazeGrid read(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt() != MAGIC || map.getInt() != VERSION)
+                throw new IOException("not a maze file: " + path);
+            int rows = map.getInt();
+            int cols = map.getInt();
+            map.getLong(); // seed
+            map.getFloat(); // k
+            boolean wordAligned = (map.getInt() & 1) != 0;
+
+            long[] words = new long[MazeGrid.wordCount(rows, cols, wordAligned)];
+            LongBuffer data = map.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+            if (data.remaining() < words.length)
+                throw new IOException("truncated maze file: " + path);
+            data.get(words);
+            return new MazeGrid(rows, cols, wordAligned, words);
+        }
+    }
+}
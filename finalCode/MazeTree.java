@@ -0,0 +1,144 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * A perfect maze seen as a rooted tree, for answering path queries without
+ * searching. Every connected region of open cells is rooted at its first cell
+ * in row-major order and walked breadth first, giving per-cell int arrays
+ * parent[] (the root is its own parent) and depth[].
+ *
+ * Lowest common ancestors use one jump pointer per cell (Myers' skew-binary
+ * scheme) rather than a full binary lifting table: jump[v] is either parent[v]
+ * or a cell whose depth is chosen so that any ancestor is reached in
+ * O(log depth) hops. That keeps the index at 12 bytes per cell, where a
+ * lifting table would need 4 bytes per cell per level (about 20 levels for
+ * the long corridors of a 2001x2001 maze).
+ *
+ * The maze must be a forest (no loops), as produced by the perfect maze
+ * generators; build rejects any other maze. The tree keeps a reference to
+ * the maze, which must not change while the tree is in use.
+ */
+public class MazeTree {
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    final MazeGrid maze;
+    final int rows, cols;
+
+    int[] parent, depth, jump;
+
+    private MazeTree(MazeGrid maze) {
+        this.maze = maze;
+        this.rows = maze.rows();
+        this.cols = maze.cols();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the open cells of maze contain a loop
+     */
+    public static MazeTree build(MazeGrid maze) {
+        MazeTree t = new MazeTree(maze);
+        t.root();
+        return t;
+    }
+
+    private void root() {
+        int cells = rows * cols;
+        parent = new int[cells];
+        depth = new int[cells];
+        jump = new int[cells];
+        Arrays.fill(parent, -1);
+
+        int[] queue = new int[cells];
+        for (int rootCell = 0; rootCell < cells; rootCell++) {
+            if (parent[rootCell] != -1 || !maze.isOpen(rootCell / cols, rootCell % cols))
+                continue;
+            parent[rootCell] = rootCell;
+            jump[rootCell] = rootCell;
+            int head = 0, tail = 0;
+            queue[tail++] = rootCell;
+            while (head < tail) {
+                int cell = queue[head++];
+                int r = cell / cols, c = cell % cols;
+                for (int i = 0; i < 4; i++) {
+                    int nr = r + DR[i], nc = c + DC[i];
+                    if (!maze.isOpen(nr, nc))
+                        continue;
+                    int child = nr * cols + nc;
+                    if (child == parent[cell])
+                        continue;
+                    if (parent[child] != -1)
+                        throw new IllegalArgumentException("maze has a loop at (" + nr + "," + nc + "), not a tree");
+                    parent[child] = cell;
+                    depth[child] = depth[cell] + 1;
+                    // Skew-binary jump: skip two equal jumps at once, else one step
+                    int j = jump[cell];
+                    jump[child] = depth[cell] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : cell;
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the ancestor of cell at the given depth (at most depth[cell])
+     */
+    int ancestor(int cell, int d) {
+        while (depth[cell] > d)
+            cell = depth[jump[cell]] >= d ? jump[cell] : parent[cell];
+        return cell;
+    }
+
+    /**
+     * @return the lowest common ancestor of cells a and b, or -1 if they are
+     *         in different regions
+     */
+    int lca(int a, int b) {
+        if (depth[a] > depth[b])
+            a = ancestor(a, depth[b]);
+        else
+            b = ancestor(b, depth[a]);
+        // At equal depth the jumps of a and b also have equal depth
+        while (a != b) {
+            if (parent[a] == a)
+                return -1; // both are roots
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = parent[a];
+                b = parent[b];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * @return the number of steps between the two open cells in O(log n), or
+     *         -1 if they are not connected
+     */
+    public int distance(int startRow, int startCol, int endRow, int endCol) {
+        int a = startRow * cols + startCol, b = endRow * cols + endCol;
+        int top = lca(a, b);
+        return top == -1 ? -1 : depth[a] + depth[b] - 2 * depth[top];
+    }
+
+    /**
+     * @return the cells of the path from a to b (both included) as flat
+     *         indices, or null if they are not connected
+     */
+    int[] path(int a, int b) {
+        int top = lca(a, b);
+        if (top == -1)
+            return null;
+        int up = depth[a] - depth[top], down = depth[b] - depth[top];
+        int[] cells = new int[up + down + 1];
+        for (int i = 0; i <= up; i++, a = parent[a])
+            cells[i] = a;
+        for (int i = up + down; i > up; i--, b = parent[b])
+            cells[i] = b;
+        return cells;
+    }
+}
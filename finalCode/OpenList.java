@@ -0,0 +1,61 @@
+package finalCode;
+
+import java.util.Comparator;
+
+/**
+ * The open list (frontier) used by the Node based solvers. Solvers take an
+ * OpenList as a strategy so the priority queue implementation can be swept as
+ * an experimental dimension in DataCollector.
+ *
+ * push() may be called again for a node that is already in the list (same
+ * row/col) with a better f. Implementations that support decrease-key update
+ * the existing entry; the others simply keep both entries and the solver skips
+ * the stale one when it is polled, as it already does for PriorityQueue.
+ */
+public interface OpenList {
+
+    /** Orders nodes by f, breaking ties on h. */
+    Comparator<Node> BY_F_THEN_H = Comparator.<Node>comparingInt(n -> n.f).thenComparingInt(n -> n.h);
+
+    void push(Node node);
+
+    /**
+     * Removes and returns the node with the lowest f, or null if empty.
+     */
+    Node poll();
+
+    boolean isEmpty();
+
+    int size();
+
+    void clear();
+
+    /**
+     * Empties the list for a search on a rows x cols maze. Implementations
+     * that index their entries by cell (row * cols + col) size their tables
+     * here; the others just clear().
+     */
+    default void clear(int rows, int cols) {
+        clear();
+    }
+
+    /**
+     * The available implementations, so experiments can iterate over them.
+     */
+    enum Type {
+        BINARY_HEAP, BUCKET_FIFO, BUCKET_LIFO, PAIRING_HEAP;
+
+        public OpenList create() {
+            switch (this) {
+                case BUCKET_FIFO:
+                    return new BucketOpenList(true);
+                case BUCKET_LIFO:
+                    return new BucketOpenList(false);
+                case PAIRING_HEAP:
+                    return new PairingHeapOpenList();
+                default:
+                    return new BinaryHeapOpenList();
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package finalCode;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pairing heap with decrease-key. Each cell has at most one entry: pushing a
+ * node whose cell is already in the heap with a better f replaces the entry's
+ * node and decreases its key, otherwise the push is ignored. So unlike the
+ * other open lists no stale duplicates are ever polled.
+ *
+ * push and decrease-key are O(1), poll is O(log n) amortised. Entries are
+ * ordered by f then h, copied from the node when it is pushed, so a solver may
+ * update a node's fields in place before pushing it again (as JPS2 does).
+ *
+ * Entries are found by cell (row * cols + col) in an array sized by
+ * clear(rows, cols), which a solver must call before its first push.
+ */
+public class PairingHeapOpenList implements OpenList {
+
+    private static class Entry {
+        Node node;
+        int cell;
+        int f, h;
+        Entry child, sibling, prev; // prev is the parent for a first child
+    }
+
+    private Entry[] entries = new Entry[0]; // by cell, null if not in the heap
+    private int cols = -1;
+    private int size;
+    private Entry root;
+
+    @Override
+    public void push(Node node) {
+        if (cols < 0)
+            throw new IllegalStateException("clear(rows, cols) must be called before the first push");
+        int cell = node.row * cols + node.col;
+        Entry e = entries[cell];
+        if (e == null) {
+            e = new Entry();
+            e.node = node;
+            e.cell = cell;
+            e.f = node.f;
+            e.h = node.h;
+            entries[cell] = e;
+            size++;
+            root = root == null ? e : meld(root, e);
+        } else if (node.f < e.f || (node.f == e.f && node.h < e.h)) {
+            decreaseKey(e, node);
+        }
+    }
+
+    private static boolean less(Entry a, Entry b) {
+        return a.f < b.f || (a.f == b.f && a.h < b.h);
+    }
+
+    private void decreaseKey(Entry e, Node node) {
+        e.node = node;
+        e.f = node.f;
+        e.h = node.h;
+        if (e == root)
+            return;
+        // cut e (and its subtree) out of its parent's child list
+        if (e.prev.child == e)
+            e.prev.child = e.sibling;
+        else
+            e.prev.sibling = e.sibling;
+        if (e.sibling != null)
+            e.sibling.prev = e.prev;
+        e.sibling = null;
+        e.prev = null;
+        root = meld(root, e);
+    }
+
+    @Override
+    public Node poll() {
+        if (root == null)
+            return null;
+        Entry min = root;
+        entries[min.cell] = null;
+        size--;
+        root = mergePairs(min.child);
+        if (root != null)
+            root.prev = null;
+        return min.node;
+    }
+
+    private Entry meld(Entry a, Entry b) {
+        if (less(b, a)) {
+            Entry t = a;
+            a = b;
+            b = t;
+        }
+        // b becomes the first child of a
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null)
+            a.child.prev = b;
+        a.child = b;
+        a.sibling = null;
+        return a;
+    }
+
+    /**
+     * Standard two-pass pairing: meld siblings left to right in pairs, then
+     * meld the results right to left. Iterative to avoid deep recursion.
+     */
+    private Entry mergePairs(Entry first) {
+        if (first == null)
+            return null;
+        // first pass, building a reversed list of melded pairs linked via sibling
+        Entry pairs = null;
+        Entry cur = first;
+        while (cur != null) {
+            Entry a = cur;
+            Entry b = cur.sibling;
+            if (b == null) {
+                a.sibling = pairs;
+                a.prev = null;
+                pairs = a;
+                break;
+            }
+            cur = b.sibling;
+            a.sibling = null;
+            b.sibling = null;
+            Entry m = meld(a, b);
+            m.prev = null;
+            m.sibling = pairs;
+            pairs = m;
+        }
+        // second pass, right to left
+        Entry result = pairs;
+        cur = pairs.sibling;
+        result.sibling = null;
+        while (cur != null) {
+            Entry next = cur.sibling;
+            cur.sibling = null;
+            result = meld(result, cur);
+            result.prev = null;
+            cur = next;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes the entries still in the heap from the cell index, walking the
+     * heap rather than the whole array.
+     */
+    @Override
+    public void clear() {
+        if (root != null) {
+            ArrayDeque<Entry> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                Entry e = stack.pop();
+                entries[e.cell] = null;
+                if (e.child != null)
+                    stack.push(e.child);
+                if (e.sibling != null)
+                    stack.push(e.sibling);
+            }
+        }
+        root = null;
+        size = 0;
+    }
+
+    @Override
+    public void clear(int rows, int cols) {
+        clear();
+        if (entries.length < rows * cols)
+            entries = new Entry[rows * cols];
+        this.cols = cols;
+    }
+}
@@ -0,0 +1,71 @@
+package finalCode;
+
+/**
+ * Anything that can solve a maze between two cells and report a Result. Lets
+ * the experiment code treat all solvers (and solver modes such as
+ * AStar.findPathIndexed) the same way.
+ *
+ * Solvers only read the maze, so one maze can be shared by solvers on several
+ * threads (see BatchSolver); each solver instance is used by one thread at a
+ * time.
+ */
+@FunctionalInterface
+public interface Pathfinder {
+
+    /**
+     * Finds a shortest path from (startRow, startCol) to (endRow, endCol).
+     */
+    Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol);
+
+    /**
+     * Finds a shortest path from (1,1) to (rows-2, cols-2).
+     */
+    default Result findPath(MazeGrid maze) {
+        return findPath(maze, 1, 1, maze.rows() - 2, maze.cols() - 2);
+    }
+
+    /**
+     * Called once before a batch of queries on maze, so solvers can build any
+     * per-maze preprocessing up front and reuse it for every query. The maze
+     * must not change until the batch is done. Same as
+     * prepare(maze, preprocess(maze)).
+     */
+    default void prepare(MazeGrid maze) {
+        prepare(maze, preprocess(maze));
+    }
+
+    /**
+     * Builds the per-maze preprocessing of prepare (a jump table, a graph)
+     * without keeping it in this solver. Queries only read it, so one result
+     * can be passed to prepare(maze, preprocessed) on every solver of the
+     * same class, on any thread, instead of each building its own. Returns
+     * null by default: nothing to build.
+     */
+    default Object preprocess(MazeGrid maze) {
+        return null;
+    }
+
+    /**
+     * Uses preprocessed, the result of preprocess(maze) on a solver of the
+     * same class, for the queries on maze. Does nothing by default.
+     */
+    default void prepare(MazeGrid maze, Object preprocessed) {
+    }
+
+    /**
+     * findPath(maze), also recording in the Result the bytes this thread
+     * allocated during the call and the GC runs that happened meanwhile. GC
+     * runs are counted for the whole JVM, so they are only meaningful when
+     * nothing else runs at the same time (DataCollector.SERIAL_TIMING).
+     * The thread's SearchWorkspace is sized for maze before measuring.
+     */
+    default Result findPathMeasured(MazeGrid maze) {
+        SearchWorkspace.get().reserve(maze.rows() * maze.cols());
+        long gcBefore = SearchStats.gcCount();
+        long allocatedBefore = SearchStats.allocatedBytes();
+        Result result = findPath(maze);
+        result.allocatedBytes = SearchStats.allocatedBytes() - allocatedBefore;
+        result.gcEvents = (int) (SearchStats.gcCount() - gcBefore);
+        return result;
+    }
+}
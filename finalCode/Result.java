@@ -1,20 +1,30 @@
 package finalCode;
 
-import java.util.List;
-
 /**
  * A container for the results of the A* algorithm execution.
  * It includes the found path, the execution time in nanoseconds,
- * and the number of nodes explored.
+ * and the number of nodes explored. The path is a compact CellPath, never
+ * null: CellPath.EMPTY if none was found. path.toNodeList() gives the Node
+ * list form.
  */
 public class Result {
-    public List<Node> path;
+    public CellPath path;
     public long executionTime;
     public int exploredNodes;
-    
+    // Working memory of the search in bytes, for solvers that report it (else 0)
+    public long memoryBytes;
+    // Bytes allocated by the calling thread and GC runs (JVM wide) during the
+    // call, filled in by Pathfinder.findPathMeasured (else 0)
+    public long allocatedBytes;
+    public int gcEvents;
+    // Open list activity, for solvers that count it (else 0)
+    public int pushes;
+    public int pops;
+    public int staleSkips;
+    public int peakOpenSize;
 
-    public Result(List<Node> path, long executionTime, int exploredNodes) {
-        this.path = path;
+    public Result(CellPath path, long executionTime, int exploredNodes) {
+        this.path = path == null ? CellPath.EMPTY : path;
         this.executionTime = executionTime;
         this.exploredNodes = exploredNodes;
     }
@@ -0,0 +1,58 @@
+package finalCode;
+
+/**
+ * One measured search as a ResultSink stores it: which maze (size, k and the
+ * sample seed), which solver, and the measurements taken from its Result.
+ * Counters a solver does not report are 0, as in Result; forwardExplored and
+ * backwardExplored are only set for the bidirectional searches.
+ */
+public class ResultRow {
+    public final int size;
+    public final float k;
+    public final long seed;
+    public final String solver;
+
+    public long executionTime;
+    public int exploredNodes;
+    public int forwardExplored, backwardExplored;
+    public int pathLength; // cells, 0 if no path was found
+    public long allocatedBytes;
+    public long memoryBytes;
+    public int gcEvents;
+    public int pushes, pops, staleSkips, peakOpenSize;
+
+    /**
+     * A row with the key columns set and every measurement 0.
+     */
+    public ResultRow(int size, float k, long seed, String solver) {
+        this.size = size;
+        this.k = k;
+        this.seed = seed;
+        this.solver = solver;
+    }
+
+    public ResultRow(int size, float k, long seed, String solver, Result result) {
+        this(size, k, seed, solver);
+        executionTime = result.executionTime;
+        exploredNodes = result.exploredNodes;
+        if (result instanceof BidirectionalResult) {
+            BidirectionalResult b = (BidirectionalResult) result;
+            forwardExplored = b.forwardExplored;
+            backwardExplored = b.backwardExplored;
+        }
+        pathLength = result.path.size();
+        allocatedBytes = result.allocatedBytes;
+        memoryBytes = result.memoryBytes;
+        gcEvents = result.gcEvents;
+        pushes = result.pushes;
+        pops = result.pops;
+        staleSkips = result.staleSkips;
+        peakOpenSize = result.peakOpenSize;
+    }
+
+    @Override
+    public String toString() {
+        return size + "x" + size + " k=" + k + " seed=" + seed + " " + solver + ": " + executionTime + " ns, "
+                + exploredNodes + " explored, path " + pathLength;
+    }
+}
@@ -0,0 +1,23 @@
+package finalCode;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination for ResultRows, replacing the rows DataCollector used to print
+ * to the console. CsvResultSink writes text, ColumnarResultSink a binary
+ * column file; AsyncResultSink moves the writing of either to a background
+ * thread so it never runs on a thread that is timing a search.
+ *
+ * Sinks are not thread-safe unless they say so. close() flushes.
+ */
+public interface ResultSink extends Closeable {
+
+    void write(ResultRow row) throws IOException;
+
+    /**
+     * Pushes rows buffered so far to the underlying file.
+     */
+    default void flush() throws IOException {
+    }
+}
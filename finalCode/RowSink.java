@@ -0,0 +1,15 @@
+package finalCode;
+
+import java.io.IOException;
+
+/**
+ * Receives a maze one grid row at a time, for generators that stream rows
+ * instead of holding the whole maze. Row bits use the MazeGrid.readRow layout:
+ * bit c of word c / 64 is cell (r, c), set = open. Rows arrive in order.
+ *
+ * MazeGrid::writeRow is a RowSink for mazes that fit in memory.
+ */
+@FunctionalInterface
+public interface RowSink {
+    void writeRow(int r, long[] bits) throws IOException;
+}
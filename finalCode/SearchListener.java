@@ -0,0 +1,21 @@
+package finalCode;
+
+/**
+ * Optional hook solvers call while they search, so a search can be traced
+ * (see SearchTrace and MazeImage). Cells are flat indices, row * cols + col.
+ * Solvers call nothing when no listener is set.
+ */
+public interface SearchListener {
+
+    /** cell was put on the open list (again, if its g improved). */
+    default void pushed(int cell) {
+    }
+
+    /** cell was taken off the open list and expanded (closed). */
+    default void expanded(int cell) {
+    }
+
+    /** cell was generated as a jump point (jump point solvers only). */
+    default void jumpPoint(int cell) {
+    }
+}
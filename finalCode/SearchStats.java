@@ -0,0 +1,71 @@
+package finalCode;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Open list counters a solver keeps during one call and copies into its
+ * Result: pushes, pops, popped entries skipped as stale (already closed), and
+ * the largest size the open list reached. Solvers keep one instance and
+ * reset it at the start of every call, so counting allocates nothing.
+ *
+ * Also reads the JVM counters Pathfinder.findPathMeasured takes around a
+ * call: bytes allocated by the current thread and GC runs so far.
+ */
+class SearchStats {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    int pushes, pops, staleSkips, peakOpenSize;
+
+    void reset() {
+        pushes = 0;
+        pops = 0;
+        staleSkips = 0;
+        peakOpenSize = 0;
+    }
+
+    /**
+     * @param openSize size of the open list after the push
+     */
+    void pushed(int openSize) {
+        pushes++;
+        if (openSize > peakOpenSize)
+            peakOpenSize = openSize;
+    }
+
+    <R extends Result> R copyTo(R result) {
+        result.pushes = pushes;
+        result.pops = pops;
+        result.staleSkips = staleSkips;
+        result.peakOpenSize = peakOpenSize;
+        return result;
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or 0 if the JVM
+     *         cannot tell
+     */
+    static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @return collections run so far by all garbage collectors of the JVM
+     */
+    static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : COLLECTORS)
+            count += Math.max(gc.getCollectionCount(), 0);
+        return count;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+    }
+}
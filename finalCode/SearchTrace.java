@@ -0,0 +1,50 @@
+package finalCode;
+
+/**
+ * A SearchListener that records one search for MazeImage: the order in which
+ * cells were expanded, the cells pushed on the open list and the jump points.
+ * A cell pushed but never expanded was still open when the search ended.
+ */
+public class SearchTrace implements SearchListener {
+
+    final int cols;
+    final int[] expandedAt; // expansion order + 1, 0 if never expanded
+    final long[] pushedCells, jumpPoints;
+    int expansions;
+
+    public SearchTrace(MazeGrid maze) {
+        cols = maze.cols();
+        int cells = maze.rows() * cols;
+        expandedAt = new int[cells];
+        pushedCells = new long[(cells + 63) >>> 6];
+        jumpPoints = new long[pushedCells.length];
+    }
+
+    @Override
+    public void pushed(int cell) {
+        pushedCells[cell >>> 6] |= 1L << cell;
+    }
+
+    @Override
+    public void expanded(int cell) {
+        if (expandedAt[cell] == 0)
+            expandedAt[cell] = ++expansions;
+    }
+
+    @Override
+    public void jumpPoint(int cell) {
+        jumpPoints[cell >>> 6] |= 1L << cell;
+    }
+
+    public int expansions() {
+        return expansions;
+    }
+
+    boolean isOpen(int cell) {
+        return expandedAt[cell] == 0 && (pushedCells[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    boolean isJumpPoint(int cell) {
+        return (jumpPoints[cell >>> 6] & (1L << cell)) != 0;
+    }
+}
@@ -0,0 +1,108 @@
+package finalCode;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread g/parent/closed arrays over flat cell indices (row * cols + col),
+ * shared by AStar, JPS and JPS2 so a query does not allocate or clear
+ * anything proportional to the maze.
+ *
+ * Each cell carries a stamp saying which search last touched it. begin()
+ * moves to a new generation, which makes every cell unseen again in O(1):
+ * stamp == generation means g and parent were set by this search, and
+ * generation + 1 that the cell is also closed. Only when the generation
+ * counter wraps are the stamps cleared. The arrays grow lazily to the
+ * largest maze seen on the thread.
+ *
+ * One search at a time per thread: a solver must not start another search
+ * on the same workspace before it is done with the current one. Solvers that
+ * run two searches at once (BidirectionalAStar, one per direction) keep their
+ * own instances instead of the thread's.
+ */
+final class SearchWorkspace {
+
+    static final int UNSEEN = Integer.MAX_VALUE;
+
+    private static final ThreadLocal<SearchWorkspace> CURRENT = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    private int[] stamp = new int[0];
+    private int[] g = new int[0];
+    private int[] parent = new int[0];
+    private int generation;
+
+    SearchWorkspace() {
+    }
+
+    /**
+     * @return the workspace of the calling thread
+     */
+    static SearchWorkspace get() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a search over cells cells: all of them become unseen.
+     */
+    SearchWorkspace begin(int cells) {
+        reserve(cells);
+        generation += 2;
+        if (generation < 0) { // wrapped
+            Arrays.fill(stamp, 0);
+            generation = 2;
+        }
+        return this;
+    }
+
+    /**
+     * Grows the arrays to hold at least cells cells, without starting a
+     * search. Pathfinder.findPathMeasured calls it before measuring, so the
+     * one-time growth is not charged to whichever solver runs first on the
+     * thread.
+     */
+    void reserve(int cells) {
+        if (stamp.length < cells) {
+            int size = Math.max(cells, stamp.length + (stamp.length >> 1));
+            stamp = Arrays.copyOf(stamp, size);
+            g = new int[size];
+            parent = new int[size];
+        }
+    }
+
+    /**
+     * @return g of cell in this search, or UNSEEN
+     */
+    int g(int cell) {
+        return stamp[cell] >= generation ? g[cell] : UNSEEN;
+    }
+
+    int parent(int cell) {
+        return parent[cell];
+    }
+
+    /**
+     * Records a better g for an open (not closed) cell.
+     */
+    void set(int cell, int gScore, int parentCell) {
+        stamp[cell] = generation;
+        g[cell] = gScore;
+        parent[cell] = parentCell;
+    }
+
+    boolean isClosed(int cell) {
+        return stamp[cell] == generation + 1;
+    }
+
+    /**
+     * Closes a cell whose g has been set.
+     */
+    void close(int cell) {
+        stamp[cell] = generation + 1;
+    }
+
+    /**
+     * @return bytes held by the arrays (for Result.memoryBytes)
+     */
+    long bytes() {
+        return 12L * stamp.length;
+    }
+}
@@ -1,13 +1,25 @@
 package finalCode;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class TestWilsons {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         System.out.println("Testing Wilson's algorithm with candidate walls...");
 
         // Create a small maze for testing
         WilsonsSimple wilson = new WilsonsSimple(501, 501);
         System.out.println("Generating");
-        boolean[][] perfectMaze = wilson.generatePerfectMaze();
+        // A fixed seed, so the store check below hits the same cached file on
+        // every run instead of adding a new maze each time
+        long seed = DataCollector.SEED;
+        MazeGrid perfectMaze = wilson.generatePerfectMaze(seed);
+
+        // The same maze by key through the store: generated on the first run,
+        // loaded from disk afterwards
+        MazeStore store = new MazeStore(Paths.get(DataCollector.MAZE_DIR));
+        if (!store.get(wilson, 501, 501, seed, 0f).equals(perfectMaze))
+            System.out.println("Stored maze differs for seed " + seed);
 
         System.out.println("Perfect maze:");
         printMaze(perfectMaze);
@@ -15,7 +27,7 @@ public class TestWilsons {
         for (float k : DataCollector.kFACTORS) {
 
             wilson.setImperfection(k);
-            boolean[][] imperfectMaze = wilson.imperfectifyMaze(perfectMaze);
+            MazeGrid imperfectMaze = wilson.imperfectifyMaze(perfectMaze);
 
             System.out.println("Imperfect maze k = " + k + ":");
             printMaze(imperfectMaze);
@@ -25,10 +37,10 @@ public class TestWilsons {
 
     }
 
-    private static void printMaze(boolean[][] maze) {
-        for (int y = 0; y < maze.length; y++) {
-            for (int x = 0; x < maze[y].length; x++) {
-                System.out.print(maze[y][x] ? "  " : "██");
+    private static void printMaze(MazeGrid maze) {
+        for (int y = 0; y < maze.rows(); y++) {
+            for (int x = 0; x < maze.cols(); x++) {
+                System.out.print(maze.isOpen(y, x) ? "  " : "██");
             }
             System.out.println();
         }
@@ -0,0 +1,74 @@
+package finalCode;
+
+/**
+ * Answers path queries on perfect mazes from a MazeTree instead of searching:
+ * the path between two cells of a tree is unique, so it is the climb from
+ * the start to the lowest common ancestor followed by the descent to the
+ * goal. The ancestor costs O(log n) jumps and the path O(path length).
+ *
+ * Like HPAStar, the index is built per maze, either by prepare or (timed
+ * with the query) on the first findPath call for a new maze. exploredNodes
+ * is always 0, since no cell is searched. Mazes with loops are rejected by
+ * MazeTree.build, so this solver is only for k = 0.
+ */
+public class TreePathOracle implements Pathfinder {
+
+    // Set by prepare: the tree of preparedMaze, reused by findPath on it
+    private MazeGrid preparedMaze;
+    private MazeTree preparedTree;
+
+    /**
+     * Solves between the two cells. The execution time includes building the
+     * tree unless prepare was called with this maze.
+     */
+    @Override
+    public Result findPath(MazeGrid maze, int startRow, int startCol, int endRow, int endCol) {
+        if (maze == preparedMaze)
+            return findPath(preparedTree, startRow, startCol, endRow, endCol);
+        long startTime = System.nanoTime();
+        MazeTree tree = MazeTree.build(maze);
+        Result result = findPath(tree, startRow, startCol, endRow, endCol);
+        result.executionTime = System.nanoTime() - startTime;
+        return result;
+    }
+
+    /**
+     * Builds the tree of maze once for a batch of queries on it.
+     */
+    @Override
+    public Object preprocess(MazeGrid maze) {
+        return MazeTree.build(maze);
+    }
+
+    @Override
+    public void prepare(MazeGrid maze, Object preprocessed) {
+        if (!(preprocessed instanceof MazeTree))
+            throw new IllegalArgumentException("not built by TreePathOracle.preprocess: " + preprocessed);
+        preparedTree = (MazeTree) preprocessed;
+        preparedMaze = maze;
+    }
+
+    /**
+     * @return Result with the cell path and query time (ns), or an empty path
+     *         if the cells are not connected
+     */
+    public Result findPath(MazeTree tree, int startRow, int startCol, int endRow, int endCol) {
+        long startTime = System.nanoTime();
+
+        if (!tree.maze.isOpen(startRow, startCol) || !tree.maze.isOpen(endRow, endCol))
+            return new Result(CellPath.EMPTY, System.nanoTime() - startTime, 0);
+
+        int cols = tree.cols;
+        int[] cells = tree.path(startRow * cols + startCol, endRow * cols + endCol);
+        CellPath path = CellPath.EMPTY;
+        if (cells != null) {
+            CellPath.Builder builder = new CellPath.Builder(cols);
+            for (int cell : cells)
+                builder.add(cell);
+            path = builder.build();
+        }
+        Result result = new Result(path, System.nanoTime() - startTime, 0);
+        result.memoryBytes = 12L * tree.rows * cols;
+        return result;
+    }
+}
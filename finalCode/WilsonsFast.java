@@ -0,0 +1,128 @@
+package finalCode;
+
+import java.util.SplittableRandom;
+
+/**
+ * Linear-time version of WilsonsSimple's perfect maze generation. It produces
+ * the same distribution (a uniform spanning tree over the odd cells) but:
+ * - unvisited cells are kept in an indexed int set with O(1) swap-removal
+ * instead of an ArrayList<Point>,
+ * - loop erasure is implicit: each walk only records the last direction it
+ * left every cell in (next[]), and retracing from the walk start along next[]
+ * gives the loop-erased path without ever scanning or copying the walk,
+ * - cells are plain int indices, so nothing is allocated per step.
+ *
+ * Expected running time is proportional to the number of cells (the mean hitting
+ * time of Wilson's walks), which makes 5001x5001 mazes practical.
+ */
+public class WilsonsFast implements MazeGenerator {
+
+    // Directions over the cell lattice: up, right, down, left
+    private static final int[] DX = { 0, 1, 0, -1 };
+    private static final int[] DY = { -1, 0, 1, 0 };
+
+    private int WIDTH = 25;
+    private int HEIGHT = 25;
+
+    public WilsonsFast() {
+
+    }
+
+    public WilsonsFast(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    @Override
+    public void setSize(int w, int h) {
+        WIDTH = w;
+        HEIGHT = h;
+    }
+
+    public MazeGrid generatePerfectMaze() {
+        return generatePerfectMaze(new SplittableRandom().nextLong());
+    }
+
+    @Override
+    public MazeGrid generatePerfectMaze(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        MazeGrid maze = new MazeGrid(HEIGHT, WIDTH);
+
+        // Cell lattice: cell (cx, cy) is grid cell (2 * cy + 1, 2 * cx + 1)
+        int cw = (WIDTH - 1) / 2;
+        int ch = (HEIGHT - 1) / 2;
+        int n = cw * ch;
+        if (n > 0) {
+            boolean[] inMaze = new boolean[n];
+            byte[] next = new byte[n];
+
+            // Indexed unvisited set: unvisited[0..size) holds the cells,
+            // position[cell] is the cell's slot
+            int[] unvisited = new int[n];
+            int[] position = new int[n];
+            for (int i = 0; i < n; i++) {
+                unvisited[i] = i;
+                position[i] = i;
+            }
+            int size = n;
+
+            // Start with random cell in maze
+            int root = random.nextInt(n);
+            inMaze[root] = true;
+            maze.open(2 * (root / cw) + 1, 2 * (root % cw) + 1);
+            size = remove(unvisited, position, size, root);
+
+            while (size > 0) {
+                int start = unvisited[random.nextInt(size)];
+
+                // Random walk until the maze is hit, remembering only the last
+                // exit direction from each cell
+                int cell = start;
+                while (!inMaze[cell]) {
+                    int cx = cell % cw;
+                    int cy = cell / cw;
+                    int d, nx, ny;
+                    do {
+                        d = random.nextInt(4);
+                        nx = cx + DX[d];
+                        ny = cy + DY[d];
+                    } while (nx < 0 || nx >= cw || ny < 0 || ny >= ch);
+                    next[cell] = (byte) d;
+                    cell = ny * cw + nx;
+                }
+
+                // Retrace the loop-erased walk and add it to the maze
+                cell = start;
+                while (!inMaze[cell]) {
+                    int cx = cell % cw;
+                    int cy = cell / cw;
+                    int d = next[cell];
+                    inMaze[cell] = true;
+                    size = remove(unvisited, position, size, cell);
+                    maze.open(2 * cy + 1, 2 * cx + 1);
+                    maze.open(2 * cy + 1 + DY[d], 2 * cx + 1 + DX[d]); // wall between
+                    cell = (cy + DY[d]) * cw + cx + DX[d];
+                }
+            }
+        }
+
+        // Ensure start and end points are accessible, same as WilsonsSimple
+        maze.open(1, 1);
+        maze.open(HEIGHT - 2, WIDTH - 2);
+        maze.open(0, 1); // Top entrance
+        maze.open(HEIGHT - 1, WIDTH - 2); // Bottom exit
+
+        return maze;
+    }
+
+    /**
+     * Swap-removes cell from the indexed set and returns the new size.
+     */
+    private static int remove(int[] unvisited, int[] position, int size, int cell) {
+        int last = unvisited[--size];
+        int slot = position[cell];
+        unvisited[slot] = last;
+        position[last] = slot;
+        return size;
+    }
+}
@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Random;
 import java.awt.Point;
 
-public class WilsonsSimple {
+public class WilsonsSimple implements MazeGenerator {
 
     private int WIDTH = 25;
     private int HEIGHT = 25;
@@ -19,12 +19,13 @@ public class WilsonsSimple {
         imperfection = iMPERFECTION;
     }
 
-    private boolean[][] maze;
-    private boolean[][] inMaze;
+    private MazeGrid maze;
+    private MazeGrid inMaze;
     private List<Point> unvisited;
     private List<Point> currentPath;
     private Point currentWalker;
     private Random random;
+    private long seed;
 
     public WilsonsSimple() {
 
@@ -35,18 +36,22 @@ public class WilsonsSimple {
         HEIGHT = h;
     }
 
+    @Override
     public void setSize(int w, int h) {
         WIDTH = w;
         HEIGHT = h;
     }
 
     private void initializeMaze() {
-        random = new Random();
-        long seed = random.nextLong();
+        initializeMaze(new Random().nextLong());
+    }
+
+    private void initializeMaze(long seed) {
+        this.seed = seed;
         System.out.println("SEED: " + seed);
-        random.setSeed(seed);
-        maze = new boolean[HEIGHT][WIDTH];
-        inMaze = new boolean[HEIGHT][WIDTH];
+        random = new Random(seed);
+        maze = new MazeGrid(HEIGHT, WIDTH);
+        inMaze = new MazeGrid(HEIGHT, WIDTH);
         unvisited = new ArrayList<>();
         currentPath = new ArrayList<>();
         currentWalker = null;
@@ -54,8 +59,6 @@ public class WilsonsSimple {
         // Initialize maze with all walls (false = wall, true = path)
         for (int y = 0; y < HEIGHT; y++) {
             for (int x = 0; x < WIDTH; x++) {
-                maze[y][x] = false;
-                inMaze[y][x] = false;
                 // Add odd coordinates as potential cells
                 if (x % 2 == 1 && y % 2 == 1 && x >= 1 && x <= WIDTH - 2 && y >= 1 && y <= HEIGHT - 2) {
                     unvisited.add(new Point(x, y));
@@ -64,9 +67,29 @@ public class WilsonsSimple {
         }
     }
 
-    public boolean[][] generatePerfectMaze() {
+    /**
+     * @return the seed of the most recently generated maze
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public MazeGrid generatePerfectMaze() {
         initializeMaze();
+        return generate();
+    }
 
+    /**
+     * Generates a perfect maze from a fixed seed, so the same seed and size
+     * always produce the same maze.
+     */
+    @Override
+    public MazeGrid generatePerfectMaze(long seed) {
+        initializeMaze(seed);
+        return generate();
+    }
+
+    private MazeGrid generate() {
         // Wilson's algorithm: Start with random cell in maze
         if (!unvisited.isEmpty()) {
             Point start = unvisited.get(random.nextInt(unvisited.size()));
@@ -86,18 +109,30 @@ public class WilsonsSimple {
         return maze;
     }
 
-    public boolean[][] generateImperfectMaze() {
+    public MazeGrid generateImperfectMaze() {
         generatePerfectMaze();
         // Add imperfections to the maze
-        addExtraEdges();
+        addExtraEdges(null);
         return maze;
     }
 
-    public boolean[][] imperfectifyMaze(boolean[][] maze) {
+    public MazeGrid imperfectifyMaze(MazeGrid maze) {
         this.maze = maze;
-        HEIGHT = maze.length;
-        WIDTH = maze[0].length;
-        addExtraEdges();
+        HEIGHT = maze.rows();
+        WIDTH = maze.cols();
+        addExtraEdges(null);
+        return this.maze;
+    }
+
+    /**
+     * Same as imperfectifyMaze(maze), but also keeps a JunctionGraph built
+     * from the perfect maze in sync, so it does not need to be rebuilt.
+     */
+    public MazeGrid imperfectifyMaze(MazeGrid maze, JunctionGraph graph) {
+        this.maze = maze;
+        HEIGHT = maze.rows();
+        WIDTH = maze.cols();
+        addExtraEdges(graph);
         return this.maze;
     }
 
@@ -110,7 +145,7 @@ public class WilsonsSimple {
         int maxSteps = WIDTH * HEIGHT * 100; // Safety limit to prevent infinite loops
         int stepCount = 0;
 
-        while (!inMaze[currentWalker.y][currentWalker.x] && stepCount < maxSteps) {
+        while (!inMaze.isOpen(currentWalker.y, currentWalker.x) && stepCount < maxSteps) {
             // Get random neighbor
             Point nextStep = getRandomNeighbor(currentWalker);
 
@@ -142,14 +177,14 @@ public class WilsonsSimple {
             int wallX = (p1.x + p2.x) / 2;
             int wallY = (p1.y + p2.y) / 2;
             if (wallX >= 0 && wallX < WIDTH && wallY >= 0 && wallY < HEIGHT) {
-                maze[wallY][wallX] = true;
+                maze.open(wallY, wallX);
             }
         }
 
         // Make sure the last cell in path is also added
         if (!currentPath.isEmpty()) {
             Point lastCell = currentPath.get(currentPath.size() - 1);
-            if (!inMaze[lastCell.y][lastCell.x]) {
+            if (!inMaze.isOpen(lastCell.y, lastCell.x)) {
                 addToMaze(lastCell);
             }
         }
@@ -193,137 +228,43 @@ public class WilsonsSimple {
     }
 
     private void addToMaze(Point p) {
-        maze[p.y][p.x] = true;
-        inMaze[p.y][p.x] = true;
+        maze.open(p.y, p.x);
+        inMaze.open(p.y, p.x);
         unvisited.remove(p);
     }
 
     private void ensureStartEndConnectivity() {
         // Ensure start point (1,1) and end point (WIDTH-2, HEIGHT-2) are paths
-        maze[1][1] = true;
-        maze[HEIGHT - 2][WIDTH - 2] = true;
+        maze.open(1, 1);
+        maze.open(HEIGHT - 2, WIDTH - 2);
 
         // Create entrance and exit by clearing border walls
-        maze[0][1] = true; // Top entrance
-        maze[HEIGHT - 1][WIDTH - 2] = true; // Bottom exit
+        maze.open(0, 1); // Top entrance
+        maze.open(HEIGHT - 1, WIDTH - 2); // Bottom exit
     }
 
-    private void addExtraEdges() {
-        int E0 = ((WIDTH - 1) / 2) * ((HEIGHT - 1) / 2) - 1;
-        int k = Math.round(imperfection * E0);
-        System.out.println(k);
-
-        // Get all candidate walls
-        List<Pair> candidateWalls = getCandidateWalls();
-        k = Math.min(k, candidateWalls.size());
-
-        // Randomly select k walls to remove for imperfection
-        for (int i = 0; i < k && !candidateWalls.isEmpty(); i++) {
-            int randomIndex = random.nextInt(candidateWalls.size());
-            Pair wallPair = candidateWalls.get(randomIndex);
-
-            // Remove the wall between the two cells
-            int wallX = (wallPair.a.x + wallPair.b.x) / 2;
-            int wallY = (wallPair.a.y + wallPair.b.y) / 2;
-
-            if (wallX >= 0 && wallX < WIDTH && wallY >= 0 && wallY < HEIGHT) {
-                maze[wallY][wallX] = true; // Remove wall (make it a path)
-                inMaze[wallY][wallX] = true;
-            }
-
-            candidateWalls.remove(randomIndex);
-        }
+    private void addExtraEdges(JunctionGraph graph) {
+        if (random == null) // imperfectifyMaze on a maze we did not generate
+            random = new Random();
+
+        // Enumerate and shuffle the candidate walls once, then remove the first k
+        Imperfector imperfector = new Imperfector(maze, random.nextLong());
+        int k = imperfector.wallsFor(imperfection);
+        if (graph == null)
+            imperfector.openWalls(maze, 0, k);
+        else
+            imperfector.openWalls(maze, 0, k, graph);
     }
 
     public void printMaze() {
         // System.out.println("\t0 1 2 3 4 5 6 7 8 9 10");
-        for (int y = 0; y < maze.length; y++) {
+        for (int y = 0; y < maze.rows(); y++) {
             // System.out.print(y + "\t");
-            for (int x = 0; x < maze[y].length; x++) {
-                System.out.print(maze[y][x] ? "  " : "██");
+            for (int x = 0; x < maze.cols(); x++) {
+                System.out.print(maze.isOpen(y, x) ? "  " : "██");
             }
             System.out.println();
         }
     }
 
-    private List<Pair> getCandidateWalls() {
-        List<Pair> candidateWalls = new ArrayList<>();
-
-        // Check all cells in the maze
-        for (int y = 1; y < HEIGHT - 1; y += 2) { // Only check odd positions (actual cells)
-            for (int x = 1; x < WIDTH - 1; x += 2) {
-                Point cellA = new Point(x, y);
-
-                // Check if this cell is a path (part of the maze)
-                if (maze[y][x]) {
-                    // Check 4-neighbors (up, down, left, right)
-                    int[][] directions = { { 0, -2 }, { 0, 2 }, { -2, 0 }, { 2, 0 } }; // up, down, left, right
-
-                    for (int[] dir : directions) {
-                        int nx = x + dir[0];
-                        int ny = y + dir[1];
-
-                        // Check bounds
-                        if (nx >= 1 && nx < WIDTH - 1 && ny >= 1 && ny < HEIGHT - 1) {
-                            Point cellB = new Point(nx, ny);
-
-                            // Check if neighbor is also a path
-                            // Check if there's still a wall between them
-                            int wallX = (x + nx) / 2;
-                            int wallY = (y + ny) / 2;
-
-                            if (!maze[wallY][wallX]) { // Wall still exists
-                                Pair candidatePair = new Pair(cellA, cellB);
-
-                                // Add only if not already in list (avoid duplicates due to unordered nature)
-                                boolean alreadyExists = false;
-                                for (Pair existing : candidateWalls) {
-                                    if (existing.equals(candidatePair)) {
-                                        alreadyExists = true;
-                                        break;
-                                    }
-                                }
-
-                                if (!alreadyExists) {
-                                    candidateWalls.add(candidatePair);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        return candidateWalls;
-    }
-
-    class Pair {
-        Point a, b;
-
-        Pair(Point a, Point b) {
-            this.a = a;
-            this.b = b;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj)
-                return true;
-            if (obj == null || getClass() != obj.getClass())
-                return false;
-            Pair pair = (Pair) obj;
-            // Unordered pair: {a,b} equals {b,a}
-            return (a.x == pair.a.x && a.y == pair.a.y && b.x == pair.b.x && b.y == pair.b.y) ||
-                    (a.x == pair.b.x && a.y == pair.b.y && b.x == pair.a.x && b.y == pair.a.y);
-        }
-
-        @Override
-        public int hashCode() {
-            // Ensure unordered pairs have same hash code
-            int hash1 = a.x * 31 + a.y;
-            int hash2 = b.x * 31 + b.y;
-            return Math.min(hash1, hash2) * 31 + Math.max(hash1, hash2);
-        }
-    }
-
 }
@@ -0,0 +1,102 @@
+package old;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import javax.swing.JComponent;
+
+/**
+ * Keeps the picture of a maze animation in an INT_RGB BufferedImage so the
+ * panels no longer redraw every cell with fillRect on each timer tick.
+ *
+ * Cells are written straight into the image's int[] pixel buffer, and only
+ * when their color actually changes. The cells changed since the last
+ * flush() are tracked as one bounding box, and flush() asks the panel to
+ * repaint just that rectangle; paint() then blits the image, which Swing
+ * clips to the repainted area. A frame therefore costs about the number of
+ * changed cells, not the maze size.
+ *
+ * Grid lines are gray on every multiple of cellSize, as the old drawRect
+ * outlines were, when cells are at least 4 pixels wide. At 501x501 and above
+ * use a small cellSize (1 to 3, drawn without grid lines): the image holds 4
+ * bytes per pixel.
+ */
+class MazeRenderer {
+
+    private static final int GRID = Color.GRAY.getRGB();
+
+    private final int width, height, cellSize;
+    private final int inset; // 1 with grid lines, else 0
+    private final BufferedImage image;
+    private final int[] pixels;
+    private final int stride;
+    private final int[] colors; // rgb of each cell, 0 = not painted yet
+
+    // Changed cells since the last flush, inclusive; empty when minX > maxX
+    private int minX, minY, maxX, maxY;
+
+    MazeRenderer(int width, int height, int cellSize) {
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.inset = cellSize >= 4 ? 1 : 0;
+        this.stride = width * cellSize + inset;
+        image = new BufferedImage(stride, height * cellSize + inset, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        colors = new int[width * height];
+        if (inset == 1)
+            for (int py = 0; py < image.getHeight(); py++)
+                for (int px = 0; px < stride; px++)
+                    if (px % cellSize == 0 || py % cellSize == 0)
+                        pixels[py * stride + px] = GRID;
+        clean();
+    }
+
+    Dimension getSize() {
+        return new Dimension(image.getWidth(), image.getHeight());
+    }
+
+    void setCell(int x, int y, Color color) {
+        int rgb = color.getRGB();
+        if (colors[y * width + x] == rgb)
+            return;
+        colors[y * width + x] = rgb;
+
+        // Inside of the cell; with grid lines its top and left edges are lines
+        int left = x * cellSize + inset, top = y * cellSize + inset;
+        int size = cellSize - inset;
+        for (int py = top; py < top + size; py++) {
+            int row = py * stride;
+            for (int px = left; px < left + size; px++)
+                pixels[row + px] = rgb;
+        }
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    /**
+     * Repaints the cells changed since the last flush on panel.
+     */
+    void flush(JComponent panel) {
+        if (minX > maxX)
+            return;
+        panel.repaint(minX * cellSize, minY * cellSize, (maxX - minX + 1) * cellSize + inset,
+                (maxY - minY + 1) * cellSize + inset);
+        clean();
+    }
+
+    void paint(Graphics g) {
+        g.drawImage(image, 0, 0, null);
+    }
+
+    private void clean() {
+        minX = width;
+        minY = height;
+        maxX = -1;
+        maxY = -1;
+    }
+}
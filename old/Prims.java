@@ -1,12 +1,14 @@
 package old;
+import finalCode.MazeCorpusWriter;
+import finalCode.MazeGrid;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 
@@ -15,6 +17,10 @@ public class Prims extends JFrame {
     private static final int HEIGHT = 21;
     private static final int CELL_SIZE = 12;
     private static final int ANIMATION_DELAY = 500;
+    // Generation steps per animation frame, so a big maze takes about as many
+    // frames as a small one; a frame also stops early after FRAME_BUDGET_NS
+    private static final int STEPS_PER_FRAME = Math.max(1, WIDTH * HEIGHT / 2500);
+    private static final long FRAME_BUDGET_NS = 10_000_000L;
 
     private boolean[][] maze;
     private boolean animating = false;
@@ -23,6 +29,7 @@ public class Prims extends JFrame {
     private Random random; 
 
     private JPanel mazePanel;
+    private MazeRenderer renderer;
     private JButton generateBtn, stepBtn, clearBtn;
 
     // Wall class to represent connections between cells
@@ -47,12 +54,12 @@ public class Prims extends JFrame {
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            drawMaze(g);
+            renderer.paint(g);
         }
 
         @Override
         public Dimension getPreferredSize() {
-            return new Dimension(WIDTH * CELL_SIZE, HEIGHT * CELL_SIZE);
+            return renderer.getSize();
         }
     }
 
@@ -79,6 +86,7 @@ public class Prims extends JFrame {
         setLayout(new BorderLayout());
 
         // Create maze panel
+        renderer = new MazeRenderer(WIDTH, HEIGHT, CELL_SIZE);
         mazePanel = new MazePanel();
         mazePanel.setBackground(Color.WHITE);
         add(mazePanel, BorderLayout.CENTER);
@@ -111,6 +119,7 @@ public class Prims extends JFrame {
 
         add(buttonPanel, BorderLayout.SOUTH);
 
+        drawMaze();
         pack();
         setLocationRelativeTo(null);
         setMinimumSize(new Dimension(2400, 1600));
@@ -118,29 +127,27 @@ public class Prims extends JFrame {
         setVisible(true);
     }
 
-    private void drawMaze(Graphics g) {
-        // Draw the maze grid
+    // Brings every cell of the renderer up to date; only changed cells are repainted
+    private void drawMaze() {
         for (int y = 0; y < HEIGHT; y++) {
             for (int x = 0; x < WIDTH; x++) {
-                int drawX = x * CELL_SIZE;
-                int drawY = y * CELL_SIZE;
-
-                // Special coloring for start (top-left) and end (bottom-right)
-                if (x == 1 && y == 1) {
-                    g.setColor(Color.GREEN); // Start point
-                } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
-                    g.setColor(Color.RED); // End point
-                } else if (maze[y][x]) {
-                    g.setColor(Color.WHITE); // Path
-                } else {
-                    g.setColor(Color.BLACK); // Wall
-                }
-
-                g.fillRect(drawX, drawY, CELL_SIZE, CELL_SIZE);
-                g.setColor(Color.GRAY);
-                g.drawRect(drawX, drawY, CELL_SIZE, CELL_SIZE);
+                drawCell(x, y);
             }
         }
+        renderer.flush(mazePanel);
+    }
+
+    private void drawCell(int x, int y) {
+        // Special coloring for start (top-left) and end (bottom-right)
+        if (x == 1 && y == 1) {
+            renderer.setCell(x, y, Color.GREEN); // Start point
+        } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
+            renderer.setCell(x, y, Color.RED); // End point
+        } else if (maze[y][x]) {
+            renderer.setCell(x, y, Color.WHITE); // Path
+        } else {
+            renderer.setCell(x, y, Color.BLACK); // Wall
+        }
     }
 
     private void clearMaze() {
@@ -152,7 +159,7 @@ public class Prims extends JFrame {
         stepBtn.setBackground(new Color(144, 238, 144));
 
         initializeMaze();
-        mazePanel.repaint();
+        drawMaze();
     }
 
     private void generateMaze() {
@@ -191,7 +198,7 @@ public class Prims extends JFrame {
 
         // Ensure start and end points are accessible for AI training
         ensureStartEndConnectivity();
-        mazePanel.repaint();
+        drawMaze();
     }
 
     private void ensureStartEndConnectivity() {
@@ -212,7 +219,7 @@ public class Prims extends JFrame {
 
         // Ensure start/end connectivity
         ensureStartEndConnectivity();
-        mazePanel.repaint();
+        drawMaze();
 
         // Create export dialog
         StringBuilder sb = new StringBuilder();
@@ -275,41 +282,58 @@ public class Prims extends JFrame {
             int startY = 1 + (random.nextInt(HEIGHT / 2)) * 2; // Can be 1, 3, 5, ..., 95, 97
 
             maze[startY][startX] = true;
+            drawCell(startX, startY);
             addFrontierWalls(startX, startY);
 
-            // Start animation timer
+            // Start animation timer; each frame runs a batch of steps and
+            // repaints only the cells they changed
             timer = new javax.swing.Timer(ANIMATION_DELAY, new ActionListener() {
                 @Override
                 public void actionPerformed(ActionEvent e) {
-                    if (frontier.isEmpty()) {
-                        timer.stop();
-                        animating = false;
-                        stepBtn.setText("Step by Step");
-                        stepBtn.setBackground(new Color(144, 238, 144));
-                        return;
+                    long deadline = System.nanoTime() + FRAME_BUDGET_NS;
+                    for (int i = 0; i < STEPS_PER_FRAME && System.nanoTime() < deadline; i++) {
+                        if (!animationStep())
+                            break;
                     }
+                    renderer.flush(mazePanel);
+                }
+            });
+            timer.start();
+        }
+    }
 
-                    // Pick random frontier wall
-                    Wall wall = frontier.remove(random.nextInt(frontier.size()));
+    /**
+     * One step of the animated generation.
+     *
+     * @return false once the frontier is empty and the animation has stopped
+     */
+    private boolean animationStep() {
+        if (frontier.isEmpty()) {
+            timer.stop();
+            animating = false;
+            stepBtn.setText("Step by Step");
+            stepBtn.setBackground(new Color(144, 238, 144));
+            return false;
+        }
 
-                    // Check if we can connect
-                    if (canConnect(wall)) {
-                        // Make the unvisited cell a path
-                        maze[wall.y2][wall.x2] = true;
+        // Pick random frontier wall
+        Wall wall = frontier.remove(random.nextInt(frontier.size()));
 
-                        // Remove wall between cells
-                        Point wallPos = wall.getWallPosition();
-                        maze[wallPos.y][wallPos.x] = true;
+        // Check if we can connect
+        if (canConnect(wall)) {
+            // Make the unvisited cell a path
+            maze[wall.y2][wall.x2] = true;
+            drawCell(wall.x2, wall.y2);
 
-                        // Add new frontier walls
-                        addFrontierWalls(wall.x2, wall.y2);
-                    }
+            // Remove wall between cells
+            Point wallPos = wall.getWallPosition();
+            maze[wallPos.y][wallPos.x] = true;
+            drawCell(wallPos.x, wallPos.y);
 
-                    mazePanel.repaint();
-                }
-            });
-            timer.start();
+            // Add new frontier walls
+            addFrontierWalls(wall.x2, wall.y2);
         }
+        return true;
     }
 
     private void addFrontierWalls(int x, int y) {
@@ -362,31 +386,13 @@ public class Prims extends JFrame {
         });
     }
 
+    /**
+     * Appends the maze to the binary corpus (1 bit per cell, see
+     * finalCode.MazeCorpus). Start is (1,1) and end is (WIDTH-2, HEIGHT-2).
+     */
     private void writeMazeToFile() {
-        StringBuilder sb = new StringBuilder();
-
-        for (int y = 0; y < HEIGHT; y++) {
-            sb.append("{");
-            for (int x = 0; x < WIDTH; x++) {
-                if (x == 1 && y == 1) {
-                    sb.append("\'S\'"); // Start
-                } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
-                    sb.append("\'E\'"); // End
-                } else if (maze[y][x]) {
-                    sb.append("\'1\'"); // Path
-                } else {
-                    sb.append("\'0\'"); // Wall
-                }
-                if (x < WIDTH - 1)
-                    sb.append(", ");
-            }
-            sb.append("}" + (y == (HEIGHT - 1) ? "" : ",") /* +"\n" */);
-        }
-
-        try {
-            FileWriter fileWriter = new FileWriter("MazesPrims.txt", true);
-            fileWriter.append("{" + sb.toString() + "}\n");
-            fileWriter.close();
+        try (MazeCorpusWriter writer = new MazeCorpusWriter(Paths.get("MazesPrims.maze"))) {
+            writer.append(MazeGrid.of(maze), 0L); // not seeded
             System.out.println("Wrote once");
         } catch (IOException e) {
             e.printStackTrace();
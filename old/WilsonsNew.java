@@ -1,12 +1,14 @@
 package old;
+import finalCode.MazeCorpusWriter;
+import finalCode.MazeGrid;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
 
@@ -15,6 +17,10 @@ public class WilsonsNew extends JFrame {
     private static final int HEIGHT = 50;
     private static final int CELL_SIZE = 12;
     private static final int ANIMATION_DELAY = 50;
+    // Walk steps per animation frame, so a big maze takes about as many frames
+    // as a small one; a frame also stops early after FRAME_BUDGET_NS
+    private static final int STEPS_PER_FRAME = Math.max(1, WIDTH * HEIGHT / 2500);
+    private static final long FRAME_BUDGET_NS = 10_000_000L;
 
     private boolean[][] maze;
     private boolean[][] inMaze;
@@ -26,6 +32,7 @@ public class WilsonsNew extends JFrame {
     private Point currentWalker;
 
     private JPanel mazePanel;
+    private MazeRenderer renderer;
     private JButton generateBtn, stepBtn, clearBtn;
 
     // Custom panel for drawing the maze
@@ -33,12 +40,12 @@ public class WilsonsNew extends JFrame {
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            drawMaze(g);
+            renderer.paint(g);
         }
 
         @Override
         public Dimension getPreferredSize() {
-            return new Dimension(WIDTH * CELL_SIZE, HEIGHT * CELL_SIZE);
+            return renderer.getSize();
         }
     }
 
@@ -73,6 +80,7 @@ public class WilsonsNew extends JFrame {
         setLayout(new BorderLayout());
 
         // Create maze panel
+        renderer = new MazeRenderer(WIDTH, HEIGHT, CELL_SIZE);
         mazePanel = new MazePanel();
         mazePanel.setBackground(Color.WHITE);
         add(mazePanel, BorderLayout.CENTER);
@@ -112,32 +120,34 @@ public class WilsonsNew extends JFrame {
         setVisible(true);
     }
 
-    private void drawMaze(Graphics g) {
-        // Draw the maze grid
+    // Brings every cell of the renderer up to date; only changed cells are repainted
+    private void drawMaze() {
         for (int y = 0; y < HEIGHT; y++) {
             for (int x = 0; x < WIDTH; x++) {
-                int drawX = x * CELL_SIZE;
-                int drawY = y * CELL_SIZE;
+                drawCell(x, y);
+            }
+        }
+        renderer.flush(mazePanel);
+    }
 
-                // Special coloring for start (top-left) and end (bottom-right)
-                if (x == 1 && y == 1) {
-                    g.setColor(Color.GREEN); // Start point
-                } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
-                    g.setColor(Color.RED); // End point
-                } else if (isPointInPath(x, y)) {
-                    g.setColor(Color.YELLOW); // Current random walk path
-                } else if (currentWalker != null && currentWalker.x == x && currentWalker.y == y) {
-                    g.setColor(Color.ORANGE); // Current walker position
-                } else if (maze[y][x]) {
-                    g.setColor(Color.WHITE); // Path
-                } else {
-                    g.setColor(Color.BLACK); // Wall
-                }
+    private void drawCell(Point p) {
+        drawCell(p.x, p.y);
+    }
 
-                g.fillRect(drawX, drawY, CELL_SIZE, CELL_SIZE);
-                g.setColor(Color.GRAY);
-                g.drawRect(drawX, drawY, CELL_SIZE, CELL_SIZE);
-            }
+    private void drawCell(int x, int y) {
+        // Special coloring for start (top-left) and end (bottom-right)
+        if (x == 1 && y == 1) {
+            renderer.setCell(x, y, Color.GREEN); // Start point
+        } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
+            renderer.setCell(x, y, Color.RED); // End point
+        } else if (isPointInPath(x, y)) {
+            renderer.setCell(x, y, Color.YELLOW); // Current random walk path
+        } else if (currentWalker != null && currentWalker.x == x && currentWalker.y == y) {
+            renderer.setCell(x, y, Color.ORANGE); // Current walker position
+        } else if (maze[y][x]) {
+            renderer.setCell(x, y, Color.WHITE); // Path
+        } else {
+            renderer.setCell(x, y, Color.BLACK); // Wall
         }
     }
 
@@ -150,7 +160,7 @@ public class WilsonsNew extends JFrame {
         stepBtn.setBackground(new Color(144, 238, 144));
 
         initializeMaze();
-        mazePanel.repaint();
+        drawMaze();
     }
 
     private void generateMaze() {
@@ -176,7 +186,7 @@ public class WilsonsNew extends JFrame {
 
         // Ensure start and end points are accessible for AI training
         ensureStartEndConnectivity();
-        mazePanel.repaint();
+        drawMaze();
     }
 
     private void performRandomWalk(Point start) {
@@ -315,7 +325,7 @@ public class WilsonsNew extends JFrame {
 
         // Ensure start/end connectivity
         ensureStartEndConnectivity();
-        mazePanel.repaint();
+        drawMaze();
 
         // Create export dialog
         StringBuilder sb = new StringBuilder();
@@ -379,10 +389,12 @@ public class WilsonsNew extends JFrame {
             if (!unvisited.isEmpty()) {
                 Point start = unvisited.get(random.nextInt(unvisited.size()));
                 addToMaze(start);
-                mazePanel.repaint();
+                drawCell(start);
+                renderer.flush(mazePanel);
             }
 
-            // Start animation timer
+            // Start animation timer; each frame runs a batch of steps and
+            // repaints only the cells they changed
             timer = new javax.swing.Timer(ANIMATION_DELAY, new ActionListener() {
                 private boolean inRandomWalk = false;
                 private int walkStepCount = 0;
@@ -390,6 +402,16 @@ public class WilsonsNew extends JFrame {
 
                 @Override
                 public void actionPerformed(ActionEvent e) {
+                    long deadline = System.nanoTime() + FRAME_BUDGET_NS;
+                    for (int i = 0; i < STEPS_PER_FRAME && System.nanoTime() < deadline; i++) {
+                        if (!step())
+                            break;
+                    }
+                    renderer.flush(mazePanel);
+                }
+
+                // One step of the animated generation; false once the maze is complete
+                private boolean step() {
                     if (unvisited.isEmpty()) {
                         // Maze complete
                         ensureStartEndConnectivity();
@@ -399,8 +421,8 @@ public class WilsonsNew extends JFrame {
                         stepBtn.setBackground(new Color(144, 238, 144));
                         currentPath.clear();
                         currentWalker = null;
-                        mazePanel.repaint();
-                        return;
+                        drawMaze();
+                        return false;
                     }
 
                     if (!inRandomWalk) {
@@ -411,6 +433,7 @@ public class WilsonsNew extends JFrame {
                         currentPath.add(new Point(currentWalker.x, currentWalker.y));
                         inRandomWalk = true;
                         walkStepCount = 0; // Reset step counter
+                        drawCell(walkStart);
                     } else {
                         // Continue random walk with safety check
                         if (!inMaze[currentWalker.y][currentWalker.x] && walkStepCount < MAX_WALK_STEPS) {
@@ -419,81 +442,73 @@ public class WilsonsNew extends JFrame {
 
                             // Check if we're creating a loop
                             int loopIndex = findInPath(nextStep);
+                            List<Point> erased = Collections.emptyList();
                             if (loopIndex >= 0) {
                                 // Erase loop by removing everything after loop point
+                                erased = currentPath.subList(loopIndex + 1, currentPath.size());
                                 currentPath = new ArrayList<>(currentPath.subList(0, loopIndex + 1));
                             } else {
                                 currentPath.add(nextStep);
                             }
 
+                            Point previous = currentWalker;
                             currentWalker = nextStep;
                             walkStepCount++;
+                            for (Point p : erased)
+                                drawCell(p);
+                            drawCell(previous);
+                            drawCell(nextStep);
                         } else {
                             // Reached maze or exceeded steps, add path
                             if (walkStepCount >= MAX_WALK_STEPS) {
                                 System.err.println("Warning: Animation random walk exceeded maximum steps");
                             }
 
-                            for (int i = 0; i < currentPath.size() - 1; i++) {
-                                Point p1 = currentPath.get(i);
-                                Point p2 = currentPath.get(i + 1);
+                            List<Point> walked = currentPath;
+                            currentPath = new ArrayList<>();
+                            currentWalker = null;
+                            inRandomWalk = false;
+
+                            for (int i = 0; i < walked.size() - 1; i++) {
+                                Point p1 = walked.get(i);
+                                Point p2 = walked.get(i + 1);
 
                                 addToMaze(p1);
+                                drawCell(p1);
 
                                 // Add connecting wall
                                 int wallX = (p1.x + p2.x) / 2;
                                 int wallY = (p1.y + p2.y) / 2;
                                 if (wallX >= 0 && wallX < WIDTH && wallY >= 0 && wallY < HEIGHT) {
                                     maze[wallY][wallX] = true;
+                                    drawCell(wallX, wallY);
                                 }
                             }
 
                             // Make sure the last cell in path is also added
-                            if (!currentPath.isEmpty()) {
-                                Point lastCell = currentPath.get(currentPath.size() - 1);
+                            if (!walked.isEmpty()) {
+                                Point lastCell = walked.get(walked.size() - 1);
                                 if (!inMaze[lastCell.y][lastCell.x]) {
                                     addToMaze(lastCell);
                                 }
+                                drawCell(lastCell);
                             }
-
-                            currentPath.clear();
-                            currentWalker = null;
-                            inRandomWalk = false;
                         }
                     }
-
-                    mazePanel.repaint();
+                    return true;
                 }
             });
             timer.start();
         }
     }
 
+    /**
+     * Appends the maze to the binary corpus (1 bit per cell, see
+     * finalCode.MazeCorpus). Start is (1,1) and end is (WIDTH-2, HEIGHT-2).
+     */
     private void writeMazeToFile() {
-        StringBuilder sb = new StringBuilder();
-
-        for (int y = 0; y < HEIGHT; y++) {
-            sb.append("{");
-            for (int x = 0; x < WIDTH; x++) {
-                if (x == 1 && y == 1) {
-                    sb.append("\'S\'"); // Start
-                } else if (x == WIDTH - 2 && y == HEIGHT - 2) {
-                    sb.append("\'E\'"); // End
-                } else if (maze[y][x]) {
-                    sb.append("\'1\'"); // Path
-                } else {
-                    sb.append("\'0\'"); // Wall
-                }
-                if (x < WIDTH - 1)
-                    sb.append(", ");
-            }
-            sb.append("}" + (y == (HEIGHT - 1) ? "" : ","));
-        }
-
-        try {
-            FileWriter fileWriter = new FileWriter("MazesWilsons.txt", true);
-            fileWriter.append("{" + sb.toString() + "}\n");
-            fileWriter.close();
+        try (MazeCorpusWriter writer = new MazeCorpusWriter(Paths.get("MazesWilsons.maze"))) {
+            writer.append(MazeGrid.of(maze), 0L); // not seeded
             System.out.println("Wilson's maze written to file");
         } catch (IOException e) {
             e.printStackTrace();